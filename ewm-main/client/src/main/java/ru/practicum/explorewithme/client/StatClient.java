@@ -1,71 +1,192 @@
-package ru.practicum.explorewithme.client;
-
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
-import org.springframework.stereotype.Component;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.DefaultUriBuilderFactory;
-import ru.practicum.explorewithme.stats.dto.EndpointHit;
-import ru.practicum.explorewithme.stats.dto.ViewStats;
-
-import jakarta.annotation.PostConstruct;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
-@Slf4j
-@Component
-public class StatClient {
-    private final RestTemplateBuilder builder;
-    private RestTemplate restTemplate;
-    @Value("${stats-server.url:http://localhost:9090}")
-    private String serverUrl;
-    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
-    public StatClient(RestTemplateBuilder builder) {
-        this.builder = builder;
-    }
-
-    @PostConstruct
-    public void init() {
-        log.info("Инициализация StatClient, serverUrl: {}", serverUrl);
-        if (serverUrl == null || serverUrl.isEmpty()) {
-            throw new IllegalStateException("stats-server.url не загружен! Проверь application-local.yml");
-        }
-        this.restTemplate = builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
-                .build();
-        log.info("StatClient инициализирован с URL: {}", serverUrl);
-    }
-
-    public void postHit(EndpointHit hit) {
-        try {
-            restTemplate.postForObject("/hit", hit, EndpointHit.class);
-        } catch (HttpStatusCodeException e) {
-            throw new RuntimeException("Ошибка при сохранении статистики: " + e.getStatusCode());
-        }
-    }
-
-    public ResponseEntity<List<ViewStats>> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique) {
-        Map<String, Object> parameters = new HashMap<>();
-        parameters.put("start", start.format(formatter));
-        parameters.put("end", end.format(formatter));
-        parameters.put("uris", uris != null ? uris : List.of());
-        parameters.put("unique", unique);
-
-        return restTemplate.exchange(
-                "/stats?start={start}&end={end}&uris={uris}&unique={unique}",
-                HttpMethod.GET,
-                null,
-                new ParameterizedTypeReference<List<ViewStats>>() {},
-                parameters
-        );
-    }
-}
\ No newline at end of file
+package ru.practicum.explorewithme.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.explorewithme.stats.dto.EndpointHit;
+import ru.practicum.explorewithme.stats.dto.ViewStats;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Slf4j
+@Component
+public class StatClient {
+    public static final String DEGRADED_HEADER = "X-Stats-Degraded";
+    public static final String DEGRADED_ATTRIBUTE = StatClient.class.getName() + ".DEGRADED";
+
+    private final RestTemplateBuilder builder;
+    private RestTemplate restTemplate;
+    private CircuitBreaker circuitBreaker;
+    private Cache<StatsKey, KnownStats> lastKnownStats;
+    @Value("${stats-server.url:http://localhost:9090}")
+    private String serverUrl;
+    @Value("${stats-server.connect-timeout:500ms}")
+    private Duration connectTimeout;
+    @Value("${stats-server.read-timeout:1s}")
+    private Duration readTimeout;
+    @Value("${stats-server.circuit-breaker.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+    @Value("${stats-server.circuit-breaker.slow-call-rate-threshold:50}")
+    private float slowCallRateThreshold;
+    @Value("${stats-server.circuit-breaker.slow-call-duration:500ms}")
+    private Duration slowCallDuration;
+    @Value("${stats-server.circuit-breaker.sliding-window-size:20}")
+    private int slidingWindowSize;
+    @Value("${stats-server.circuit-breaker.minimum-calls:10}")
+    private int minimumCalls;
+    @Value("${stats-server.circuit-breaker.open-duration:10s}")
+    private Duration openDuration;
+    @Value("${stats-server.circuit-breaker.half-open-calls:3}")
+    private int halfOpenCalls;
+    @Value("${stats-server.fallback.max-size:10000}")
+    private long fallbackMaxSize;
+    @Value("${stats-server.fallback.ttl:PT10M}")
+    private Duration fallbackTtl;
+    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    public StatClient(RestTemplateBuilder builder) {
+        this.builder = builder;
+    }
+
+    @PostConstruct
+    public void init() {
+        log.info("Инициализация StatClient, serverUrl: {}", serverUrl);
+        if (serverUrl == null || serverUrl.isEmpty()) {
+            throw new IllegalStateException("stats-server.url не загружен! Проверь application-local.yml");
+        }
+        this.restTemplate = builder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
+                .setConnectTimeout(connectTimeout)
+                .setReadTimeout(readTimeout)
+                .build();
+        this.circuitBreaker = CircuitBreaker.of("stats-server", CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .waitDurationInOpenState(openDuration)
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .ignoreExceptions(HttpClientErrorException.class)
+                .build());
+        this.lastKnownStats = Caffeine.newBuilder()
+                .maximumSize(fallbackMaxSize)
+                .expireAfterWrite(fallbackTtl)
+                .build();
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Circuit breaker сервиса статистики: {}", event.getStateTransition()));
+        log.info("StatClient инициализирован с URL: {}", serverUrl);
+    }
+
+    public void postHit(EndpointHit hit) {
+        try {
+            circuitBreaker.executeRunnable(() -> restTemplate.postForObject("/hit", hit, EndpointHit.class));
+        } catch (CallNotPermittedException | ResourceAccessException | HttpServerErrorException e) {
+            log.warn("Сервис статистики недоступен, просмотр {} не сохранён: {}", hit.getUri(), e.getMessage());
+            markDegraded();
+        } catch (HttpStatusCodeException e) {
+            throw new RuntimeException("Ошибка при сохранении статистики: " + e.getStatusCode());
+        }
+    }
+
+    public ResponseEntity<List<ViewStats>> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique) {
+        try {
+            ResponseEntity<List<ViewStats>> response = circuitBreaker.executeSupplier(() ->
+                    requestStats(start, end, uris, unique));
+            if (response.getBody() != null) {
+                response.getBody().forEach(stats -> lastKnownStats.put(new StatsKey(start, unique, stats.getUri()),
+                        new KnownStats(end, stats)));
+            }
+            return response;
+        } catch (CallNotPermittedException | ResourceAccessException | HttpServerErrorException e) {
+            log.warn("Сервис статистики недоступен, используются последние известные просмотры: {}", e.getMessage());
+            markDegraded();
+            return ResponseEntity.ok(lastKnownStats(start, end, uris, unique));
+        }
+    }
+
+    public List<ViewStats> getStatsWithoutFallback(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique) {
+        List<ViewStats> stats = circuitBreaker.executeSupplier(() -> requestStats(start, end, uris, unique)).getBody();
+        return stats != null ? stats : List.of();
+    }
+
+    private ResponseEntity<List<ViewStats>> requestStats(LocalDateTime start, LocalDateTime end, List<String> uris,
+                                                         boolean unique) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("start", start.format(formatter));
+        parameters.put("end", end.format(formatter));
+        parameters.put("unique", unique);
+
+        StringBuilder path = new StringBuilder("/stats?start={start}&end={end}&unique={unique}");
+        if (uris != null) {
+            for (int i = 0; i < uris.size(); i++) {
+                path.append("&uris={uri").append(i).append('}');
+                parameters.put("uri" + i, uris.get(i));
+            }
+        }
+
+        return restTemplate.exchange(
+                path.toString(),
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<List<ViewStats>>() {},
+                parameters
+        );
+    }
+
+    private List<ViewStats> lastKnownStats(LocalDateTime start, LocalDateTime end, List<String> uris,
+                                           boolean unique) {
+        if (uris == null || uris.isEmpty()) {
+            return lastKnownStats.asMap().entrySet().stream()
+                    .filter(entry -> entry.getKey().start().equals(start) && entry.getKey().unique() == unique)
+                    .map(Map.Entry::getValue)
+                    .filter(known -> !known.end().isAfter(end))
+                    .map(KnownStats::stats)
+                    .toList();
+        }
+        return uris.stream()
+                .map(uri -> lastKnownStats.getIfPresent(new StatsKey(start, unique, uri)))
+                .filter(Objects::nonNull)
+                .filter(known -> !known.end().isAfter(end))
+                .map(KnownStats::stats)
+                .toList();
+    }
+
+    public void markDegraded() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(DEGRADED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private record StatsKey(LocalDateTime start, boolean unique, String uri) {
+    }
+
+    private record KnownStats(LocalDateTime end, ViewStats stats) {
+    }
+}
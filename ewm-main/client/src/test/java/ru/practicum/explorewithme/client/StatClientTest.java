@@ -0,0 +1,118 @@
+package ru.practicum.explorewithme.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.explorewithme.stats.dto.EndpointHit;
+import ru.practicum.explorewithme.stats.dto.ViewStats;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class StatClientTest {
+    private static final String STATS_BODY = "[{\"app\":\"ewm-main\",\"uri\":\"/events/1\",\"hits\":5}]";
+
+    private final LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private final LocalDateTime end = LocalDateTime.of(2026, 1, 2, 0, 0);
+
+    private StatClient client;
+    private MockRestServiceServer server;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        client = new StatClient(new RestTemplateBuilder());
+        ReflectionTestUtils.setField(client, "serverUrl", "http://stats");
+        ReflectionTestUtils.setField(client, "connectTimeout", Duration.ofMillis(500));
+        ReflectionTestUtils.setField(client, "readTimeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(client, "failureRateThreshold", 50f);
+        ReflectionTestUtils.setField(client, "slowCallRateThreshold", 50f);
+        ReflectionTestUtils.setField(client, "slowCallDuration", Duration.ofMillis(500));
+        ReflectionTestUtils.setField(client, "slidingWindowSize", 20);
+        ReflectionTestUtils.setField(client, "minimumCalls", 10);
+        ReflectionTestUtils.setField(client, "openDuration", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(client, "halfOpenCalls", 3);
+        ReflectionTestUtils.setField(client, "fallbackMaxSize", 100L);
+        ReflectionTestUtils.setField(client, "fallbackTtl", Duration.ofMinutes(10));
+        client.init();
+        server = MockRestServiceServer.bindTo((RestTemplate) ReflectionTestUtils.getField(client, "restTemplate"))
+                .build();
+        request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getStats_fallsBackToLastKnownStatsWhenServerFails() {
+        server.expect(requestTo(startsWith("http://stats/stats")))
+                .andRespond(withSuccess(STATS_BODY, MediaType.APPLICATION_JSON));
+        server.expect(requestTo(startsWith("http://stats/stats")))
+                .andRespond(withServerError());
+
+        client.getStats(start, end, List.of("/events/1"), false);
+        assertNull(request.getAttribute(StatClient.DEGRADED_ATTRIBUTE));
+
+        List<ViewStats> fallback = client.getStats(start, end, List.of("/events/1", "/events/2"), false).getBody();
+
+        assertEquals(List.of(new ViewStats("ewm-main", "/events/1", 5L)), fallback);
+        assertEquals(Boolean.TRUE, request.getAttribute(StatClient.DEGRADED_ATTRIBUTE));
+        server.verify();
+    }
+
+    @Test
+    void getStats_keepsUniqueAndTotalFallbacksApart() {
+        server.expect(requestTo(startsWith("http://stats/stats")))
+                .andRespond(withSuccess(STATS_BODY, MediaType.APPLICATION_JSON));
+        server.expect(requestTo(startsWith("http://stats/stats")))
+                .andRespond(withServerError());
+
+        client.getStats(start, end, List.of("/events/1"), false);
+
+        assertEquals(List.of(), client.getStats(start, end, List.of("/events/1"), true).getBody());
+    }
+
+    @Test
+    void getStats_doesNotServeFallbackFromAnotherWindow() {
+        server.expect(requestTo(startsWith("http://stats/stats")))
+                .andRespond(withSuccess(STATS_BODY, MediaType.APPLICATION_JSON));
+        server.expect(requestTo(startsWith("http://stats/stats")))
+                .andRespond(withServerError());
+        server.expect(requestTo(startsWith("http://stats/stats")))
+                .andRespond(withServerError());
+
+        client.getStats(start, end, List.of("/events/1"), false);
+
+        assertEquals(List.of(), client.getStats(start.plusHours(1), end, List.of("/events/1"), false).getBody());
+        assertEquals(List.of(), client.getStats(start, end.minusHours(1), null, false).getBody());
+        server.verify();
+    }
+
+    @Test
+    void postHit_marksResponseDegradedWhenServerFails() {
+        server.expect(requestTo("http://stats/hit")).andRespond(withServerError());
+
+        client.postHit(EndpointHit.builder().app("ewm-main").uri("/events/1").ip("127.0.0.1")
+                .timestamp(start).build());
+
+        assertEquals(Boolean.TRUE, request.getAttribute(StatClient.DEGRADED_ATTRIBUTE));
+    }
+}
@@ -11,7 +11,7 @@ import ru.practicum.explorewithme.event.dto.EventShortDto;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class CompilationDto {
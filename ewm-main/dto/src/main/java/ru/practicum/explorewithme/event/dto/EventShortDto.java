@@ -12,7 +12,7 @@ import ru.practicum.explorewithme.user.dto.UserShortDto;
 import java.time.LocalDateTime;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class EventShortDto {
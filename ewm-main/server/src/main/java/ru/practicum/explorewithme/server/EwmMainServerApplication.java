@@ -2,14 +2,14 @@ package ru.practicum.explorewithme.server;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
-@SpringBootApplication
+@SpringBootApplication(scanBasePackages = {"ru.practicum.explorewithme.server", "ru.practicum.explorewithme.client"})
 @EnableTransactionManagement
-@ComponentScan(basePackages = {"ru.practicum.explorewithme.server", "ru.practicum.explorewithme.client", "ru.practicum.explorewithme.server.exception"})
+@EnableScheduling
 public class EwmMainServerApplication {
     public static void main(String[] args) {
         SpringApplication.run(EwmMainServerApplication.class, args);
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -29,8 +29,9 @@ public class AdminEventController {
                                      @RequestParam(required = false) @DateTimeFormat(pattern = DATE_TIME_PATTERN) LocalDateTime rangeStart,
                                      @RequestParam(required = false) @DateTimeFormat(pattern = DATE_TIME_PATTERN) LocalDateTime rangeEnd,
                                      @RequestParam(defaultValue = "0") Integer from,
-                                     @RequestParam(defaultValue = "10") Integer size) {
-        return eventService.getAdminEvents(users, states, categories, rangeStart, rangeEnd, from, size);
+                                     @RequestParam(defaultValue = "10") Integer size,
+                                     @RequestParam(required = false) String cursor) {
+        return eventService.getAdminEvents(users, states, categories, rangeStart, rangeEnd, from, size, cursor);
     }
 
     @PatchMapping("/{eventId}")
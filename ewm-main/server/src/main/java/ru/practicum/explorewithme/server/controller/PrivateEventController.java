@@ -1,10 +1,16 @@
 package ru.practicum.explorewithme.server.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.explorewithme.event.dto.EventFullDto;
 import ru.practicum.explorewithme.event.dto.EventShortDto;
 import ru.practicum.explorewithme.event.dto.NewEventDto;
@@ -12,9 +18,12 @@ import ru.practicum.explorewithme.event.dto.UpdateEventUserRequest;
 import ru.practicum.explorewithme.request.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.explorewithme.request.dto.EventRequestStatusUpdateResult;
 import ru.practicum.explorewithme.request.dto.ParticipationRequestDto;
+import ru.practicum.explorewithme.server.entity.RequestStatus;
 import ru.practicum.explorewithme.server.service.EventService;
 import ru.practicum.explorewithme.server.service.RequestService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -24,16 +33,18 @@ import java.util.List;
 public class PrivateEventController {
     private final EventService eventService;
     private final RequestService requestService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     public List<EventShortDto> getAll(@PathVariable Long userId,
                                       @RequestParam(required = false) Integer from,
-                                      @RequestParam(required = false) Integer size) {
+                                      @RequestParam(required = false) Integer size,
+                                      @RequestParam(required = false) String cursor) {
 
         int safeFrom = (from == null) ? 0 : from;
         int safeSize = (size == null) ? 10 : size;
 
-        return eventService.getUserEvents(userId, safeFrom, safeSize);
+        return eventService.getUserEvents(userId, safeFrom, safeSize, cursor);
     }
 
     @PostMapping
@@ -55,9 +66,31 @@ public class PrivateEventController {
     @GetMapping("/{eventId}/requests")
     public List<ParticipationRequestDto> getEventRequests(
             @PathVariable Long userId,
-            @PathVariable Long eventId
+            @PathVariable Long eventId,
+            @RequestParam(required = false) RequestStatus status,
+            @RequestParam(required = false) @PositiveOrZero Integer from,
+            @RequestParam(required = false) @Positive Integer size,
+            @RequestParam(required = false) String cursor
+    ) {
+        return requestService.getByEvent(userId, eventId, status, from, size, cursor);
+    }
+
+    @GetMapping(value = "/{eventId}/requests/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportEventRequests(
+            @PathVariable Long userId,
+            @PathVariable Long eventId,
+            @RequestParam(required = false) RequestStatus status
     ) {
-        return requestService.getByEvent(userId, eventId);
+        requestService.checkEventOwner(userId, eventId);
+        StreamingResponseBody body = out -> requestService.exportByEvent(eventId, status, request -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(request));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @PatchMapping("/{eventId}/requests")
@@ -1,6 +1,8 @@
 package ru.practicum.explorewithme.server.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -9,6 +11,7 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.explorewithme.request.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.explorewithme.request.dto.EventRequestStatusUpdateResult;
 import ru.practicum.explorewithme.request.dto.ParticipationRequestDto;
+import ru.practicum.explorewithme.server.entity.RequestStatus;
 import ru.practicum.explorewithme.server.service.RequestService;
 
 import java.util.List;
@@ -22,8 +25,12 @@ public class PrivateRequestController {
     private final RequestService requestService;
 
     @GetMapping
-    public List<ParticipationRequestDto> getAll(@PathVariable Long userId) {
-        return requestService.getByUser(userId);
+    public List<ParticipationRequestDto> getAll(@PathVariable Long userId,
+                                                @RequestParam(required = false) RequestStatus status,
+                                                @RequestParam(required = false) @PositiveOrZero Integer from,
+                                                @RequestParam(required = false) @Positive Integer size,
+                                                @RequestParam(required = false) String cursor) {
+        return requestService.getByUser(userId, status, from, size, cursor);
     }
 
     @PostMapping
@@ -43,8 +50,12 @@ public class PrivateRequestController {
 
     @GetMapping("/events/{eventId}")
     public List<ParticipationRequestDto> getByEvent(@PathVariable Long userId,
-                                                    @PathVariable Long eventId) {
-        return requestService.getByEvent(userId, eventId);
+                                                    @PathVariable Long eventId,
+                                                    @RequestParam(required = false) RequestStatus status,
+                                                    @RequestParam(required = false) @PositiveOrZero Integer from,
+                                                    @RequestParam(required = false) @Positive Integer size,
+                                                    @RequestParam(required = false) String cursor) {
+        return requestService.getByEvent(userId, eventId, status, from, size, cursor);
     }
 
     @PatchMapping("/events/{eventId}/requests")
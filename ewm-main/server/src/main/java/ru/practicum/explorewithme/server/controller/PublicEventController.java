@@ -35,6 +35,7 @@ public class PublicEventController {
             @RequestParam(required = false) String sort,
             @RequestParam(defaultValue = "0") Integer from,
             @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor,
             HttpServletRequest request) {
 
         return eventService.getPublicEvents(
@@ -47,6 +48,7 @@ public class PublicEventController {
                 sort,
                 from,
                 size,
+                cursor,
                 request.getRemoteAddr()
         );
     }
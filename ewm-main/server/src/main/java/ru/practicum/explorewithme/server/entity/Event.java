@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
@@ -12,12 +13,15 @@ import java.util.Set;
 @Entity
 @Table(name = "events")
 @Data
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Event {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "events_seq")
+    @SequenceGenerator(name = "events_seq", sequenceName = "events_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -67,6 +71,14 @@ public class Event {
     @Column(nullable = false, length = 120)
     private String title;
 
+    @Column(updatable = false)
+    @Builder.Default
+    private Long confirmedRequests = 0L;
+
+    @Column(updatable = false)
+    @Builder.Default
+    private Long views = 0L;
+
     @OneToMany(mappedBy = "event", fetch = FetchType.LAZY)
     private Set<Request> requests;
 }
@@ -1,12 +1,20 @@
 package ru.practicum.explorewithme.server.mapper;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Component;
+import ru.practicum.explorewithme.category.dto.CategoryDto;
 import ru.practicum.explorewithme.event.dto.EventFullDto;
 import ru.practicum.explorewithme.event.dto.EventShortDto;
 import ru.practicum.explorewithme.event.dto.Location;
+import ru.practicum.explorewithme.server.entity.Category;
 import ru.practicum.explorewithme.server.entity.Event;
 import ru.practicum.explorewithme.server.entity.EventLocation;
+import ru.practicum.explorewithme.server.entity.User;
+import ru.practicum.explorewithme.server.repository.EventSummary;
+import ru.practicum.explorewithme.server.service.CategoryCache;
+import ru.practicum.explorewithme.server.service.UserShortCache;
+import ru.practicum.explorewithme.user.dto.UserShortDto;
 
 @Component
 @RequiredArgsConstructor
@@ -14,17 +22,19 @@ public class EventMapper {
 
     private final CategoryMapper categoryMapper;
     private final UserMapper userMapper;
+    private final CategoryCache categoryCache;
+    private final UserShortCache userShortCache;
 
     public EventFullDto toFullDto(Event event, Long confirmedRequests, Long views, boolean isNew) {
         return EventFullDto.builder()
                 .id(event.getId())
                 .annotation(event.getAnnotation())
-                .category(categoryMapper.toDto(event.getCategory()))
+                .category(toCategoryDto(event.getCategory()))
                 .confirmedRequests(confirmedRequests)
                 .createdOn(event.getCreatedOn())
                 .description(event.getDescription())
                 .eventDate(event.getEventDate())
-                .initiator(userMapper.toShortDto(event.getInitiator()))
+                .initiator(toUserShortDto(event.getInitiator()))
                 .location(convertToDto(event.getLocation()))
                 .paid(event.getPaid())
                 .participantLimit(event.getParticipantLimit())
@@ -40,16 +50,45 @@ public class EventMapper {
         return EventShortDto.builder()
                 .id(event.getId())
                 .annotation(event.getAnnotation())
-                .category(categoryMapper.toDto(event.getCategory()))
+                .category(toCategoryDto(event.getCategory()))
                 .confirmedRequests(confirmedRequests)
                 .eventDate(event.getEventDate())
-                .initiator(userMapper.toShortDto(event.getInitiator()))
+                .initiator(toUserShortDto(event.getInitiator()))
                 .paid(event.getPaid())
                 .title(event.getTitle())
                 .views(views)
                 .build();
     }
 
+    public EventShortDto toShortDto(EventSummary event, Long views) {
+        return EventShortDto.builder()
+                .id(event.id())
+                .annotation(event.annotation())
+                .category(CategoryDto.builder().id(event.categoryId()).name(event.categoryName()).build())
+                .confirmedRequests(event.confirmedRequests())
+                .eventDate(event.eventDate())
+                .initiator(UserShortDto.builder().id(event.initiatorId()).name(event.initiatorName()).build())
+                .paid(event.paid())
+                .title(event.title())
+                .views(views)
+                .build();
+    }
+
+    private CategoryDto toCategoryDto(Category category) {
+        if (Hibernate.isInitialized(category)) {
+            return categoryMapper.toDto(category);
+        }
+        return categoryCache.get(category.getId()).orElseGet(() -> categoryMapper.toDto(category));
+    }
+
+    private UserShortDto toUserShortDto(User user) {
+        if (Hibernate.isInitialized(user)) {
+            return userMapper.toShortDto(user);
+        }
+        UserShortDto cached = userShortCache.get(user.getId());
+        return cached != null ? cached : userMapper.toShortDto(user);
+    }
+
     public Location convertToDto(EventLocation entity) {
         if (entity == null) return null;
         return new Location(entity.getLat(), entity.getLon());
@@ -3,17 +3,33 @@ package ru.practicum.explorewithme.server.mapper;
 import org.springframework.stereotype.Component;
 import ru.practicum.explorewithme.request.dto.ParticipationRequestDto;
 import ru.practicum.explorewithme.server.entity.Request;
+import ru.practicum.explorewithme.server.entity.RequestStatus;
+import ru.practicum.explorewithme.server.repository.RequestSummary;
 
 @Component
 public class RequestMapper {
 
     public ParticipationRequestDto toDto(Request request) {
+        return toDto(request, request.getStatus());
+    }
+
+    public ParticipationRequestDto toDto(Request request, RequestStatus status) {
         return ParticipationRequestDto.builder()
                 .id(request.getId())
                 .created(request.getCreated())
                 .event(request.getEvent().getId())
                 .requester(request.getRequester().getId())
-                .status(request.getStatus().name())
+                .status(status.name())
+                .build();
+    }
+
+    public ParticipationRequestDto toDto(RequestSummary request) {
+        return ParticipationRequestDto.builder()
+                .id(request.id())
+                .created(request.created())
+                .event(request.eventId())
+                .requester(request.requesterId())
+                .status(request.status().name())
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,4 @@
+package ru.practicum.explorewithme.server.repository;
+
+public record CompilationMember(Long compilationId, Long eventId) {
+}
@@ -1,10 +1,11 @@
 package ru.practicum.explorewithme.server.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.explorewithme.server.entity.Compilation;
 
+import java.util.List;
+
 public interface CompilationRepository extends JpaRepository<Compilation, Long> {
 
     boolean existsByTitle(String title);
@@ -13,5 +14,7 @@ public interface CompilationRepository extends JpaRepository<Compilation, Long>
 
     boolean existsById(Long id);
 
-    Page<Compilation> findAllByPinned(boolean pinned, Pageable pageable);
+    @Query("SELECT new ru.practicum.explorewithme.server.repository.CompilationMember(c.id, e.id) " +
+            "FROM Compilation c JOIN c.events e")
+    List<CompilationMember> findAllMembers();
 }
\ No newline at end of file
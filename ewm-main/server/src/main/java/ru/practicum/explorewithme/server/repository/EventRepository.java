@@ -1,57 +1,72 @@
 package ru.practicum.explorewithme.server.repository;
 
-import org.springframework.data.domain.Page;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.explorewithme.server.entity.Event;
 import ru.practicum.explorewithme.server.entity.EventState;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, EventSearchRepository {
 
     boolean existsByCategoryId(Long categoryId);
 
-    @Query("""
-    SELECT e FROM Event e
-    WHERE LOWER(e.annotation) LIKE LOWER(CONCAT('%', :text, '%'))
-       OR LOWER(e.description) LIKE LOWER(CONCAT('%', :text, '%'))
-       OR LOWER(e.title) LIKE LOWER(CONCAT('%', :text, '%'))
-      AND (:categories IS NULL OR e.category.id IN :categories)
-      AND e.state = :publishedState
-      AND (:paid IS NULL OR e.paid = :paid)
-      AND e.eventDate BETWEEN :rangeStart AND :rangeEnd
-      AND (:onlyAvailable IS NULL OR e.participantLimit = 0
-           OR e.participantLimit > (SELECT COUNT(r) FROM Request r WHERE r.event = e AND r.status = 'CONFIRMED'))
-    ORDER BY e.eventDate DESC
-""")
-    Page<Event> findPublicEvents(
-            @Param("text") String text,
-            @Param("categories") List<Long> categories,
-            @Param("paid") Boolean paid,
-            @Param("rangeStart") LocalDateTime rangeStart,
-            @Param("rangeEnd") LocalDateTime rangeEnd,
-            @Param("onlyAvailable") Boolean onlyAvailable,
-            @Param("publishedState") EventState publishedState,
-            Pageable pageable);
-
-    @Query("SELECT e FROM Event e WHERE (:users IS NULL OR e.initiator.id IN :users) " +
-            "AND (:states IS NULL OR e.state IN :states) " +
-            "AND (:categories IS NULL OR e.category.id IN :categories) " +
-            "AND e.eventDate BETWEEN :rangeStart AND :rangeEnd")
-    List<Event> findAdminEvents(@Param("users") List<Long> users,
-                                @Param("states") List<EventState> states,
-                                @Param("categories") List<Long> categories,
-                                @Param("rangeStart") LocalDateTime rangeStart,
-                                @Param("rangeEnd") LocalDateTime rangeEnd,
-                                Pageable pageable);
-
-    List<Event> findAllByInitiatorId(Long userId, Pageable pageable);
+    String EVENT_SUMMARY = """
+    SELECT new ru.practicum.explorewithme.server.repository.EventSummary(e.id, e.annotation, c.id, c.name,
+        e.confirmedRequests, e.eventDate, u.id, u.name, e.paid, e.title, e.views)
+    FROM Event e JOIN e.category c JOIN e.initiator u
+""";
+
+    @Query(EVENT_SUMMARY + "WHERE e.initiator.id = :userId")
+    List<EventSummary> findUserEvents(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(EVENT_SUMMARY + "WHERE e.initiator.id = :userId AND e.eventDate <= :cursorDate " +
+            "AND (e.eventDate < :cursorDate OR e.id < :cursorId)")
+    List<EventSummary> findUserEventsAfter(@Param("userId") Long userId,
+                                           @Param("cursorDate") LocalDateTime cursorDate,
+                                           @Param("cursorId") Long cursorId,
+                                           Pageable pageable);
+
+    @Query(EVENT_SUMMARY + "WHERE e.id IN :ids")
+    List<EventSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    List<Event> findAllByStateAndIdGreaterThanOrderByIdAsc(EventState state, Long id, Pageable pageable);
 
     @Query("SELECT e FROM Event e JOIN FETCH e.initiator WHERE e.id = :id")
     Optional<Event> findByIdWithInitiator(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Event e JOIN FETCH e.initiator WHERE e.id = :id")
+    Optional<Event> findByIdWithInitiatorForUpdate(@Param("id") Long id);
+
+    @Query("SELECT e.confirmedRequests FROM Event e WHERE e.id = :id")
+    Optional<Long> findConfirmedRequestsById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.confirmedRequests = e.confirmedRequests + :delta WHERE e.id = :eventId")
+    int addConfirmedRequests(@Param("eventId") Long eventId, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.confirmedRequests = e.confirmedRequests + :delta WHERE e.id = :eventId " +
+            "AND (e.participantLimit = 0 OR e.confirmedRequests + :delta <= e.participantLimit)")
+    int admitConfirmedRequests(@Param("eventId") Long eventId, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.confirmedRequests = :confirmed WHERE e.id = :eventId")
+    int setConfirmedRequests(@Param("eventId") Long eventId, @Param("confirmed") long confirmed);
+
+    @Query(value = """
+    SELECT e.id FROM events e
+    WHERE e.confirmed_requests IS NULL
+       OR e.confirmed_requests <> (SELECT COUNT(*) FROM requests r WHERE r.event_id = e.id AND r.status = 'CONFIRMED')
+""", nativeQuery = true)
+    List<Long> findConfirmedRequestsDrift();
 }
@@ -0,0 +1,27 @@
+package ru.practicum.explorewithme.server.repository;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.explorewithme.server.entity.EventState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class EventSearchCriteria {
+    private List<Long> users;
+    private List<EventState> states;
+    private List<Long> categories;
+    private Boolean paid;
+    private LocalDateTime rangeStart;
+    private LocalDateTime rangeEnd;
+    private boolean onlyAvailable;
+    private String text;
+    private boolean rankByText;
+    private List<Long> ids;
+    private String substring;
+    private LocalDateTime cursorDate;
+    private Long cursorViews;
+    private Long cursorId;
+}
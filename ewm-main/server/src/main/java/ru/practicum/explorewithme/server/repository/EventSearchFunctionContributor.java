@@ -0,0 +1,52 @@
+package ru.practicum.explorewithme.server.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.query.sqm.produce.function.StandardFunctionArgumentTypeResolvers;
+import org.hibernate.type.BasicTypeReference;
+import org.hibernate.type.StandardBasicTypes;
+import org.hibernate.type.spi.TypeConfiguration;
+
+import static org.hibernate.query.sqm.produce.function.FunctionParameterType.STRING;
+
+public class EventSearchFunctionContributor implements FunctionContributor {
+    public static final String MATCH = "fts_match";
+    public static final String RANK = "fts_rank";
+
+    private static final String PG_DOCUMENT =
+            "to_tsvector('simple', coalesce(?1, '') || ' ' || coalesce(?2, '') || ' ' || coalesce(?3, ''))";
+    private static final String PG_WEIGHTED_DOCUMENT = "setweight(to_tsvector('simple', coalesce(?1, '')), 'A') || "
+            + "setweight(to_tsvector('simple', coalesce(?2, '')), 'B') || "
+            + "setweight(to_tsvector('simple', coalesce(?3, '')), 'C')";
+    private static final String PG_QUERY = "plainto_tsquery('simple', ?4)";
+
+    private static final String LIKE_TEXT =
+            " like '%' || replace(replace(replace(lower(?4), '\\', '\\\\'), '%', '\\%'), '_', '\\_') || '%' escape '\\'";
+
+    @Override
+    public void contributeFunctions(FunctionContributions contributions) {
+        if (contributions.getDialect() instanceof PostgreSQLDialect) {
+            register(contributions, MATCH, PG_DOCUMENT + " @@ " + PG_QUERY, StandardBasicTypes.BOOLEAN);
+            register(contributions, RANK, "ts_rank(" + PG_WEIGHTED_DOCUMENT + ", " + PG_QUERY + ")", StandardBasicTypes.DOUBLE);
+        } else {
+            register(contributions, MATCH,
+                    "(lower(?1)" + LIKE_TEXT + " or lower(?2)" + LIKE_TEXT + " or lower(?3)" + LIKE_TEXT + ")",
+                    StandardBasicTypes.BOOLEAN);
+            register(contributions, RANK,
+                    "(case when lower(?1)" + LIKE_TEXT + " then 2 when lower(?2)" + LIKE_TEXT + " then 1 else 0 end)",
+                    StandardBasicTypes.DOUBLE);
+        }
+    }
+
+    private void register(FunctionContributions contributions, String name, String pattern,
+                          BasicTypeReference<?> returnType) {
+        TypeConfiguration types = contributions.getTypeConfiguration();
+        contributions.getFunctionRegistry().patternDescriptorBuilder(name, pattern)
+                .setInvariantType(types.getBasicTypeRegistry().resolve(returnType))
+                .setExactArgumentCount(4)
+                .setParameterTypes(STRING, STRING, STRING, STRING)
+                .setArgumentTypeResolver(StandardFunctionArgumentTypeResolvers.invariant(types, STRING, STRING, STRING, STRING))
+                .register();
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.explorewithme.server.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.explorewithme.server.entity.Event;
+
+import java.util.List;
+
+public interface EventSearchRepository {
+
+    List<EventSummary> findEventSummaries(EventSearchCriteria criteria, Pageable pageable);
+
+    List<Event> findEvents(EventSearchCriteria criteria, Pageable pageable);
+}
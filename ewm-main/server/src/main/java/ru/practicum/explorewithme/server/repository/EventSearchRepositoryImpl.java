@@ -0,0 +1,135 @@
+package ru.practicum.explorewithme.server.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.practicum.explorewithme.server.entity.Category;
+import ru.practicum.explorewithme.server.entity.Event;
+import ru.practicum.explorewithme.server.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class EventSearchRepositoryImpl implements EventSearchRepository {
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<EventSummary> findEventSummaries(EventSearchCriteria criteria, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EventSummary> query = cb.createQuery(EventSummary.class);
+        Root<Event> event = query.from(Event.class);
+        Join<Event, Category> category = event.join("category");
+        Join<Event, User> initiator = event.join("initiator");
+        query.select(cb.construct(EventSummary.class,
+                event.get("id"), event.get("annotation"), category.get("id"), category.get("name"),
+                event.get("confirmedRequests"), event.get("eventDate"), initiator.get("id"), initiator.get("name"),
+                event.get("paid"), event.get("title"), event.get("views")));
+        query.where(predicates(cb, event, criteria));
+        query.orderBy(orders(cb, event, criteria, pageable));
+        return page(entityManager.createQuery(query), pageable);
+    }
+
+    @Override
+    public List<Event> findEvents(EventSearchCriteria criteria, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Event> query = cb.createQuery(Event.class);
+        Root<Event> event = query.from(Event.class);
+        event.fetch("category");
+        event.fetch("initiator");
+        query.select(event);
+        query.where(predicates(cb, event, criteria));
+        query.orderBy(orders(cb, event, criteria, pageable));
+        return page(entityManager.createQuery(query), pageable);
+    }
+
+    private Predicate[] predicates(CriteriaBuilder cb, Root<Event> event, EventSearchCriteria criteria) {
+        List<Predicate> predicates = new ArrayList<>();
+        addIn(predicates, cb, event.get("initiator").get("id"), criteria.getUsers());
+        addIn(predicates, cb, event.get("state"), criteria.getStates());
+        addIn(predicates, cb, event.get("category").get("id"), criteria.getCategories());
+        addIn(predicates, cb, event.get("id"), criteria.getIds());
+        if (criteria.getPaid() != null) {
+            predicates.add(cb.equal(event.get("paid"), criteria.getPaid()));
+        }
+        if (criteria.getRangeStart() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(event.<LocalDateTime>get("eventDate"), criteria.getRangeStart()));
+        }
+        if (criteria.getRangeEnd() != null) {
+            predicates.add(cb.lessThanOrEqualTo(event.<LocalDateTime>get("eventDate"), criteria.getRangeEnd()));
+        }
+        if (criteria.isOnlyAvailable()) {
+            Path<Integer> limit = event.get("participantLimit");
+            predicates.add(cb.or(cb.equal(limit, 0), cb.gt(limit, event.<Long>get("confirmedRequests"))));
+        }
+        if (criteria.getText() != null) {
+            predicates.add(cb.isTrue(textFunction(cb, event, EventSearchFunctionContributor.MATCH, Boolean.class,
+                    criteria.getText())));
+        }
+        if (criteria.getSubstring() != null) {
+            predicates.add(cb.or(
+                    cb.like(cb.lower(event.<String>get("title")), criteria.getSubstring(), LIKE_ESCAPE),
+                    cb.like(cb.lower(event.<String>get("annotation")), criteria.getSubstring(), LIKE_ESCAPE),
+                    cb.like(cb.lower(event.<String>get("description")), criteria.getSubstring(), LIKE_ESCAPE)));
+        }
+        if (criteria.getCursorDate() != null) {
+            predicates.add(seek(cb, event, event.<LocalDateTime>get("eventDate"), criteria.getCursorDate(),
+                    criteria.getCursorId()));
+        }
+        if (criteria.getCursorViews() != null) {
+            predicates.add(seek(cb, event, event.<Long>get("views"), criteria.getCursorViews(),
+                    criteria.getCursorId()));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private void addIn(List<Predicate> predicates, CriteriaBuilder cb, Path<?> path, List<?> values) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        predicates.add(values.size() == 1 ? cb.equal(path, values.get(0)) : path.in(values));
+    }
+
+    private <T extends Comparable<? super T>> Predicate seek(CriteriaBuilder cb, Root<Event> event, Path<T> key,
+                                                             T keyValue, Long id) {
+        return cb.and(cb.lessThanOrEqualTo(key, keyValue),
+                cb.or(cb.lessThan(key, keyValue), cb.lessThan(event.<Long>get("id"), id)));
+    }
+
+    private List<Order> orders(CriteriaBuilder cb, Root<Event> event, EventSearchCriteria criteria,
+                               Pageable pageable) {
+        if (criteria.isRankByText()) {
+            return List.of(cb.desc(textFunction(cb, event, EventSearchFunctionContributor.RANK, Double.class,
+                    criteria.getText())), cb.desc(event.get("id")));
+        }
+        return QueryUtils.toOrders(pageable.getSort(), event, cb);
+    }
+
+    private <T> Expression<T> textFunction(CriteriaBuilder cb, Root<Event> event, String name, Class<T> type,
+                                           String text) {
+        return cb.function(name, type, event.get("title"), event.get("annotation"), event.get("description"),
+                ((HibernateCriteriaBuilder) cb).value(text));
+    }
+
+    private <T> List<T> page(TypedQuery<T> query, Pageable pageable) {
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.explorewithme.server.repository;
+
+import java.time.LocalDateTime;
+
+public record EventSummary(Long id,
+                           String annotation,
+                           Long categoryId,
+                           String categoryName,
+                           Long confirmedRequests,
+                           LocalDateTime eventDate,
+                           Long initiatorId,
+                           String initiatorName,
+                           Boolean paid,
+                           String title,
+                           Long views) {
+}
@@ -1,21 +1,63 @@
 package ru.practicum.explorewithme.server.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.explorewithme.server.entity.Request;
 import ru.practicum.explorewithme.server.entity.RequestStatus;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface RequestRepository extends JpaRepository<Request, Long> {
-    List<Request> findAllByEventId(Long eventId);
+    String REQUEST_SUMMARY = """
+    SELECT new ru.practicum.explorewithme.server.repository.RequestSummary(r.id, r.created, r.event.id,
+        r.requester.id, r.status)
+    FROM Request r
+""";
+
+    @Query(REQUEST_SUMMARY + "WHERE r.event.id = :eventId AND r.id > :afterId ORDER BY r.id")
+    List<RequestSummary> findEventRequests(@Param("eventId") Long eventId,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
+
+    @Query(REQUEST_SUMMARY + "WHERE r.event.id = :eventId AND r.status = :status AND r.id > :afterId ORDER BY r.id")
+    List<RequestSummary> findEventRequestsByStatus(@Param("eventId") Long eventId,
+                                                   @Param("status") RequestStatus status,
+                                                   @Param("afterId") Long afterId,
+                                                   Pageable pageable);
+
+    @Query(REQUEST_SUMMARY + "WHERE r.requester.id = :userId AND r.id > :afterId ORDER BY r.id")
+    List<RequestSummary> findUserRequests(@Param("userId") Long userId,
+                                          @Param("afterId") Long afterId,
+                                          Pageable pageable);
+
+    @Query(REQUEST_SUMMARY + "WHERE r.requester.id = :userId AND r.status = :status AND r.id > :afterId " +
+            "ORDER BY r.id")
+    List<RequestSummary> findUserRequestsByStatus(@Param("userId") Long userId,
+                                                  @Param("status") RequestStatus status,
+                                                  @Param("afterId") Long afterId,
+                                                  Pageable pageable);
 
     List<Request> findAllByRequesterIdAndEventIdIn(Long userId, List<Long> eventIds);
 
     List<Request> findAllByEventIdAndStatus(Long eventId, RequestStatus status);
 
-    List<Request> findAllByRequesterId(Long userId);
-
     Long countByEventIdAndStatus(Long eventId, RequestStatus status);
 
     boolean existsByEventIdAndRequesterId(Long eventId, Long requesterId);
+
+    @Modifying
+    @Query("UPDATE Request r SET r.status = :status WHERE r.id IN :ids AND r.status = :currentStatus")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+                           @Param("currentStatus") RequestStatus currentStatus,
+                           @Param("status") RequestStatus status);
+
+    @Modifying
+    @Query("UPDATE Request r SET r.status = :status WHERE r.event.id = :eventId AND r.status = :currentStatus")
+    int updateStatusByEventId(@Param("eventId") Long eventId,
+                              @Param("currentStatus") RequestStatus currentStatus,
+                              @Param("status") RequestStatus status);
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package ru.practicum.explorewithme.server.repository;
+
+import ru.practicum.explorewithme.server.entity.RequestStatus;
+
+import java.time.LocalDateTime;
+
+public record RequestSummary(Long id,
+                             LocalDateTime created,
+                             Long eventId,
+                             Long requesterId,
+                             RequestStatus status) {
+}
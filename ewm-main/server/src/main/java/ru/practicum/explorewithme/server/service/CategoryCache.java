@@ -0,0 +1,72 @@
+package ru.practicum.explorewithme.server.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.explorewithme.category.dto.CategoryDto;
+import ru.practicum.explorewithme.server.entity.Category;
+import ru.practicum.explorewithme.server.mapper.CategoryMapper;
+import ru.practicum.explorewithme.server.repository.CategoryRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryCache {
+    private final CategoryRepository categoryRepository;
+    private final CategoryMapper categoryMapper;
+
+    private final Object writeLock = new Object();
+    private volatile Map<Long, CategoryDto> categories;
+
+    public Optional<CategoryDto> get(Long catId) {
+        CategoryDto cached = snapshot().get(catId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<CategoryDto> loaded = categoryRepository.findById(catId).map(categoryMapper::toDto);
+        loaded.ifPresent(category -> apply(map -> map.put(catId, category)));
+        return loaded;
+    }
+
+    public void put(Category category) {
+        CategoryDto dto = categoryMapper.toDto(category);
+        AfterCommit.run(() -> apply(map -> map.put(dto.getId(), dto)));
+    }
+
+    public void remove(Long catId) {
+        AfterCommit.run(() -> apply(map -> map.remove(catId)));
+    }
+
+    private Map<Long, CategoryDto> snapshot() {
+        Map<Long, CategoryDto> current = categories;
+        if (current != null) {
+            return current;
+        }
+        synchronized (writeLock) {
+            if (categories == null) {
+                Map<Long, CategoryDto> loaded = new HashMap<>();
+                categoryRepository.findAll().forEach(category -> loaded.put(category.getId(),
+                        categoryMapper.toDto(category)));
+                categories = Map.copyOf(loaded);
+                log.info("Справочник категорий загружен в память: {} категорий", loaded.size());
+            }
+            return categories;
+        }
+    }
+
+    private void apply(Consumer<Map<Long, CategoryDto>> update) {
+        synchronized (writeLock) {
+            if (categories == null) {
+                return;
+            }
+            Map<Long, CategoryDto> copy = new HashMap<>(categories);
+            update.accept(copy);
+            categories = Map.copyOf(copy);
+        }
+    }
+}
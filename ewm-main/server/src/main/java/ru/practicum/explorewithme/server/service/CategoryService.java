@@ -1,7 +1,5 @@
 package ru.practicum.explorewithme.server.service;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -17,6 +15,7 @@ import ru.practicum.explorewithme.server.repository.EventRepository;
 import ru.practicum.explorewithme.server.mapper.CategoryMapper;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -26,9 +25,10 @@ public class CategoryService {
     private final CategoryRepository categoryRepository;
     private final EventRepository eventRepository;
     private final CategoryMapper categoryMapper;
-
-    @PersistenceContext
-    private EntityManager entityManager;
+    private final EventDetailsCache eventDetailsCache;
+    private final PublicEventSearchCache publicEventSearchCache;
+    private final CategoryCache categoryCache;
+    private final CompilationViewStore compilationViewStore;
 
     private static final String CATEGORY_NOT_FOUND = "Категория с id=%d не найдена";
     private static final String CATEGORY_NAME_EXISTS = "Название категории уже существует: %s";
@@ -41,11 +41,12 @@ public class CategoryService {
         }
         Category category = categoryMapper.toEntity(newCategory);
         category = categoryRepository.save(category);
-        entityManager.flush();
+        categoryCache.put(category);
         log.info("Категория создана с ID {}", category.getId());
         return categoryMapper.toDto(category);
     }
 
+    @Transactional
     public CategoryDto update(Long catId, CategoryDto categoryDto) {
         log.info("Обновление категории ID {} с именем '{}'", catId, categoryDto.getName());
 
@@ -62,11 +63,17 @@ public class CategoryService {
 
         category.setName(categoryDto.getName());
         category = categoryRepository.save(category);
+        categoryCache.put(category);
+        eventDetailsCache.evictAll();
+        publicEventSearchCache.evictCategories(Set.of(catId));
 
         log.info("Категория ID {} обновлена", catId);
-        return categoryMapper.toDto(category);
+        CategoryDto dto = categoryMapper.toDto(category);
+        compilationViewStore.updateCategory(dto);
+        return dto;
     }
 
+    @Transactional
     public void delete(Long catId) {
         log.info("Удаление категории ID {}", catId);
 
@@ -81,6 +88,7 @@ public class CategoryService {
         }
 
         categoryRepository.deleteById(catId);
+        categoryCache.remove(catId);
         log.info("Категория ID {} удалена", catId);
     }
 
@@ -98,21 +106,19 @@ public class CategoryService {
     public CategoryDto getById(Long catId) {
         log.debug("Получение категории ID {}", catId);
 
-        Category category = categoryRepository.findById(catId)
+        return categoryCache.get(catId)
                 .orElseThrow(() -> new EntityNotFoundException(
                         String.format(CATEGORY_NOT_FOUND, catId)
                 ));
-
-        return categoryMapper.toDto(category);
     }
 
     @Transactional(readOnly = true)
     public Category getEntityById(Long catId) {
         log.debug("Получение entity категории ID {}", catId);
 
-        return categoryRepository.findById(catId)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        String.format(CATEGORY_NOT_FOUND, catId)
-                ));
+        if (categoryCache.get(catId).isEmpty()) {
+            throw new EntityNotFoundException(String.format(CATEGORY_NOT_FOUND, catId));
+        }
+        return categoryRepository.getReferenceById(catId);
     }
 }
\ No newline at end of file
@@ -1,11 +1,7 @@
 package ru.practicum.explorewithme.server.service;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.explorewithme.compilation.dto.CompilationDto;
@@ -13,14 +9,17 @@ import ru.practicum.explorewithme.compilation.dto.NewCompilationDto;
 import ru.practicum.explorewithme.compilation.dto.UpdateCompilationRequest;
 import ru.practicum.explorewithme.event.dto.EventShortDto;
 import ru.practicum.explorewithme.server.repository.CompilationRepository;
+import ru.practicum.explorewithme.server.repository.EventRepository;
 import ru.practicum.explorewithme.server.entity.Compilation;
 import ru.practicum.explorewithme.server.entity.Event;
 import ru.practicum.explorewithme.server.exception.EntityNotFoundException;
 import ru.practicum.explorewithme.server.mapper.CompilationMapper;
 import ru.practicum.explorewithme.server.mapper.EventMapper;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -29,15 +28,15 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class CompilationService {
     private final CompilationRepository compilationRepository;
-    private final EventService eventService;
+    private final EventRepository eventRepository;
+    private final EventViewsService eventViewsService;
     private final CompilationMapper compilationMapper;
     private final EventMapper eventMapper;
-
-    @PersistenceContext
-    private EntityManager entityManager;
+    private final CompilationViewStore compilationViewStore;
 
     private static final String COMPILATION_NOT_FOUND = "Подборка с id=%d не найдена";
     private static final String COMPILATION_TITLE_EXISTS = "Название подборки уже существует: %s";
+    private static final String EVENTS_NOT_FOUND = "События с id=%s не найдены";
     private static final boolean DEFAULT_PINNED = false;
 
     @Transactional
@@ -50,22 +49,17 @@ public class CompilationService {
                 .title(newCompilation.getTitle())
                 .pinned(newCompilation.getPinned() != null ? newCompilation.getPinned() : DEFAULT_PINNED)
                 .build();
-        Set<Event> events = new HashSet<>();
-        if (newCompilation.getEvents() != null && !newCompilation.getEvents().isEmpty()) {
-            newCompilation.getEvents().forEach(eventId -> events.add(eventService.getById(eventId)));
-        }
+        Set<Event> events = findEvents(newCompilation.getEvents());
         compilation.setEvents(events);
         compilation = compilationRepository.save(compilation);
-        entityManager.flush();
         log.info("Подборка создана с ID {}", compilation.getId());
 
-        List<EventShortDto> eventDtos = events.stream()
-                .map(e -> eventMapper.toShortDto(e, eventService.getConfirmedCount(e.getId()), eventService.getViewsForEvent(e.getId())))
-                .collect(Collectors.toList());
-
-        return compilationMapper.toDto(compilation, eventDtos);
+        CompilationDto dto = compilationMapper.toDto(compilation, toEventDtos(events));
+        compilationViewStore.put(dto);
+        return dto;
     }
 
+    @Transactional
     public CompilationDto update(Long compId, UpdateCompilationRequest update) {
         log.info("Обновление подборки ID {}", compId);
         Compilation compilation = compilationRepository.findById(compId)
@@ -77,62 +71,56 @@ public class CompilationService {
             compilation.setTitle(update.getTitle());
         }
         if (update.getPinned() != null) compilation.setPinned(update.getPinned());
-        Set<Event> events = new HashSet<>();
-        if (update.getEvents() != null && !update.getEvents().isEmpty()) {
-            update.getEvents().forEach(eventId -> events.add(eventService.getById(eventId)));
-        }
-        compilation.setEvents(events);
+        Set<Event> events = findEvents(update.getEvents());
+        compilation.getEvents().retainAll(events);
+        compilation.getEvents().addAll(events);
         compilation = compilationRepository.save(compilation);
         log.info("Подборка ID {} обновлена", compId);
 
-        List<EventShortDto> eventDtos = events.stream()
-                .map(e -> eventMapper.toShortDto(e, eventService.getConfirmedCount(e.getId()), eventService.getViewsForEvent(e.getId())))
-                .collect(Collectors.toList());
-
-        return compilationMapper.toDto(compilation, eventDtos);
+        CompilationDto dto = compilationMapper.toDto(compilation, toEventDtos(events));
+        compilationViewStore.put(dto);
+        return dto;
     }
 
+    @Transactional
     public void delete(Long compId) {
         log.info("Удаление подборки ID {}", compId);
         if (!compilationRepository.existsById(compId)) {
             throw new EntityNotFoundException(String.format(COMPILATION_NOT_FOUND, compId));
         }
         compilationRepository.deleteById(compId);
+        compilationViewStore.remove(compId);
         log.info("Подборка ID {} удалена", compId);
     }
 
     public List<CompilationDto> getAll(Boolean pinned, Integer from, Integer size) {
         log.debug("Получение подборок pinned={} from {} size {}", pinned, from, size);
-        PageRequest pageable = PageRequest.of(from / size, size);
-        List<Compilation> compilations;
-        if (pinned != null) {
-            Page<Compilation> page = compilationRepository.findAllByPinned(pinned, pageable);
-            compilations = page.getContent();
-        } else {
-            Page<Compilation> page = compilationRepository.findAll(pageable);
-            compilations = page.getContent();
-        }
-
-        return compilations.stream()
-                .map(comp -> {
-                    List<EventShortDto> eventDtos = comp.getEvents() != null ? comp.getEvents().stream()
-                            .map(e -> eventMapper.toShortDto(e, eventService.getConfirmedCount(e.getId()), eventService.getViewsForEvent(e.getId())))
-                            .collect(Collectors.toList()) : List.of();
-                    return compilationMapper.toDto(comp, eventDtos);
-                })
-                .collect(Collectors.toList());
+        return compilationViewStore.getAll(pinned, from, size);
     }
 
-    @Transactional(readOnly = true)
     public CompilationDto getById(Long compId) {
         log.debug("Получение подборки ID {}", compId);
-        Compilation compilation = compilationRepository.findById(compId)
+        return compilationViewStore.get(compId)
                 .orElseThrow(() -> new EntityNotFoundException(String.format(COMPILATION_NOT_FOUND, compId)));
+    }
 
-        List<EventShortDto> eventDtos = compilation.getEvents() != null ? compilation.getEvents().stream()
-                .map(e -> eventMapper.toShortDto(e, eventService.getConfirmedCount(e.getId()), eventService.getViewsForEvent(e.getId())))
-                .collect(Collectors.toList()) : List.of();
+    private Set<Event> findEvents(Collection<Long> eventIds) {
+        if (eventIds == null || eventIds.isEmpty()) {
+            return new HashSet<>();
+        }
+        Set<Long> ids = new HashSet<>(eventIds);
+        Set<Event> events = new HashSet<>(eventRepository.findAllById(ids));
+        if (events.size() != ids.size()) {
+            events.forEach(event -> ids.remove(event.getId()));
+            throw new EntityNotFoundException(String.format(EVENTS_NOT_FOUND, ids.stream().sorted().toList()));
+        }
+        return events;
+    }
 
-        return compilationMapper.toDto(compilation, eventDtos);
+    private List<EventShortDto> toEventDtos(Collection<Event> events) {
+        Map<Long, Long> views = eventViewsService.getViews(events.stream().map(Event::getId).toList());
+        return events.stream()
+                .map(e -> eventMapper.toShortDto(e, e.getConfirmedRequests(), views.get(e.getId())))
+                .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
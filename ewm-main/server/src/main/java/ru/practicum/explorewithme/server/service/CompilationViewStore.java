@@ -0,0 +1,181 @@
+package ru.practicum.explorewithme.server.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.explorewithme.category.dto.CategoryDto;
+import ru.practicum.explorewithme.compilation.dto.CompilationDto;
+import ru.practicum.explorewithme.event.dto.EventShortDto;
+import ru.practicum.explorewithme.server.entity.Compilation;
+import ru.practicum.explorewithme.server.entity.Event;
+import ru.practicum.explorewithme.server.mapper.CompilationMapper;
+import ru.practicum.explorewithme.server.mapper.EventMapper;
+import ru.practicum.explorewithme.server.repository.CompilationMember;
+import ru.practicum.explorewithme.server.repository.CompilationRepository;
+import ru.practicum.explorewithme.server.repository.EventRepository;
+import ru.practicum.explorewithme.server.repository.EventSummary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CompilationViewStore {
+    private final CompilationRepository compilationRepository;
+    private final EventRepository eventRepository;
+    private final EventViewsService eventViewsService;
+    private final CompilationMapper compilationMapper;
+    private final EventMapper eventMapper;
+
+    private final Object loadLock = new Object();
+    private final Object writeLock = new Object();
+    private volatile NavigableMap<Long, CompilationDto> compilations;
+    private List<Consumer<NavigableMap<Long, CompilationDto>>> pendingUpdates;
+
+    public List<CompilationDto> getAll(Boolean pinned, int from, int size) {
+        return snapshot().values().stream()
+                .filter(compilation -> pinned == null || pinned.equals(compilation.getPinned()))
+                .skip((long) from / size * size)
+                .limit(size)
+                .toList();
+    }
+
+    public Optional<CompilationDto> get(Long compId) {
+        return Optional.ofNullable(snapshot().get(compId));
+    }
+
+    public void put(CompilationDto compilation) {
+        AfterCommit.run(() -> apply(map -> map.put(compilation.getId(), compilation)));
+    }
+
+    public void remove(Long compId) {
+        AfterCommit.run(() -> apply(map -> map.remove(compId)));
+    }
+
+    public void updateEvent(Event event) {
+        EventShortDto updated = eventMapper.toShortDto(event, event.getConfirmedRequests(), null);
+        AfterCommit.run(() -> replaceEvents(dto -> dto.getId().equals(updated.getId()),
+                dto -> updated.toBuilder().views(dto.getViews()).build()));
+    }
+
+    public void addConfirmedRequests(Long eventId, long delta) {
+        AfterCommit.run(() -> replaceEvents(dto -> dto.getId().equals(eventId),
+                dto -> dto.toBuilder().confirmedRequests(
+                        (dto.getConfirmedRequests() != null ? dto.getConfirmedRequests() : 0L) + delta).build()));
+    }
+
+    public void updateCategory(CategoryDto category) {
+        AfterCommit.run(() -> replaceEvents(dto -> dto.getCategory().getId().equals(category.getId()),
+                dto -> dto.toBuilder().category(category).build()));
+    }
+
+    @Scheduled(initialDelayString = "${ewm.compilations.refresh-interval:PT1M}",
+            fixedDelayString = "${ewm.compilations.refresh-interval:PT1M}")
+    public void scheduledRefresh() {
+        if (compilations != null) {
+            refresh();
+        }
+    }
+
+    public void refresh() {
+        synchronized (loadLock) {
+            long started = System.nanoTime();
+            synchronized (writeLock) {
+                pendingUpdates = new ArrayList<>();
+            }
+            NavigableMap<Long, CompilationDto> loaded;
+            try {
+                loaded = load();
+            } catch (RuntimeException e) {
+                synchronized (writeLock) {
+                    pendingUpdates = null;
+                }
+                throw e;
+            }
+            synchronized (writeLock) {
+                pendingUpdates.forEach(update -> update.accept(loaded));
+                pendingUpdates = null;
+                compilations = Collections.unmodifiableNavigableMap(loaded);
+            }
+            log.info("Представления подборок перестроены: подборок={}, за {} мс",
+                    loaded.size(), (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    private NavigableMap<Long, CompilationDto> load() {
+        List<Compilation> all = compilationRepository.findAll();
+        Map<Long, List<Long>> members = compilationRepository.findAllMembers().stream()
+                .collect(Collectors.groupingBy(CompilationMember::compilationId,
+                        Collectors.mapping(CompilationMember::eventId, Collectors.toList())));
+        List<Long> eventIds = members.values().stream().flatMap(List::stream).distinct().toList();
+        Map<Long, EventShortDto> events = Map.of();
+        if (!eventIds.isEmpty()) {
+            Map<Long, Long> views = eventViewsService.getViews(eventIds);
+            events = eventRepository.findSummariesByIdIn(eventIds).stream()
+                    .collect(Collectors.toMap(EventSummary::id, event -> eventMapper.toShortDto(event,
+                            views.get(event.id())), (first, second) -> first));
+        }
+
+        NavigableMap<Long, CompilationDto> loaded = new TreeMap<>();
+        for (Compilation compilation : all) {
+            List<EventShortDto> compilationEvents = members.getOrDefault(compilation.getId(), List.of()).stream()
+                    .map(events::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+            loaded.put(compilation.getId(), compilationMapper.toDto(compilation, compilationEvents));
+        }
+        return loaded;
+    }
+
+    private NavigableMap<Long, CompilationDto> snapshot() {
+        NavigableMap<Long, CompilationDto> current = compilations;
+        if (current != null) {
+            return current;
+        }
+        synchronized (loadLock) {
+            if (compilations == null) {
+                refresh();
+            }
+            return compilations;
+        }
+    }
+
+    private void replaceEvents(Predicate<EventShortDto> affected, UnaryOperator<EventShortDto> replacement) {
+        apply(map -> map.replaceAll((compId, compilation) -> {
+            if (compilation.getEvents().stream().noneMatch(affected)) {
+                return compilation;
+            }
+            return compilation.toBuilder()
+                    .events(compilation.getEvents().stream()
+                            .map(dto -> affected.test(dto) ? replacement.apply(dto) : dto)
+                            .toList())
+                    .build();
+        }));
+    }
+
+    private void apply(Consumer<NavigableMap<Long, CompilationDto>> update) {
+        synchronized (writeLock) {
+            if (pendingUpdates != null) {
+                pendingUpdates.add(update);
+            }
+            if (compilations == null) {
+                return;
+            }
+            NavigableMap<Long, CompilationDto> copy = new TreeMap<>(compilations);
+            update.accept(copy);
+            compilations = Collections.unmodifiableNavigableMap(copy);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.explorewithme.server.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.explorewithme.server.entity.Event;
+import ru.practicum.explorewithme.server.entity.RequestStatus;
+import ru.practicum.explorewithme.server.repository.EventRepository;
+import ru.practicum.explorewithme.server.repository.RequestRepository;
+
+import java.util.List;
+import java.util.Objects;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ConfirmedRequestsRepairService {
+    private final EventRepository eventRepository;
+    private final RequestRepository requestRepository;
+    private final EventDetailsCache eventDetailsCache;
+    private final PublicEventSearchCache publicEventSearchCache;
+
+    @Scheduled(initialDelayString = "${ewm.confirmed-requests-repair.initial-delay:PT1M}",
+            fixedDelayString = "${ewm.confirmed-requests-repair.interval:PT1H}")
+    @Transactional
+    public void repair() {
+        List<Long> drifted = eventRepository.findConfirmedRequestsDrift();
+        int repaired = 0;
+        for (Long eventId : drifted) {
+            // Блокировка строки события упорядочивает пересчёт с admitConfirmedRequests и changeStatus
+            Event event = eventRepository.findByIdWithInitiatorForUpdate(eventId).orElse(null);
+            if (event == null) {
+                continue;
+            }
+            Long actual = requestRepository.countByEventIdAndStatus(eventId, RequestStatus.CONFIRMED);
+            if (!Objects.equals(event.getConfirmedRequests(), actual)) {
+                log.warn("Счётчик подтверждённых заявок события ID={} расходится: {} вместо {}",
+                        eventId, event.getConfirmedRequests(), actual);
+                eventRepository.setConfirmedRequests(eventId, actual);
+                repaired++;
+            }
+        }
+        if (repaired > 0) {
+            eventDetailsCache.evictAll();
+            publicEventSearchCache.evictAll();
+            log.warn("Счётчик подтверждённых заявок исправлен для {} событий", repaired);
+        } else {
+            log.debug("Счётчики подтверждённых заявок согласованы");
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package ru.practicum.explorewithme.server.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.explorewithme.server.entity.Event;
+import ru.practicum.explorewithme.server.entity.EventState;
+import ru.practicum.explorewithme.server.repository.EventRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventCatalog {
+    private final EventRepository eventRepository;
+
+    @Value("${ewm.catalog.enabled:true}")
+    private boolean enabled;
+    @Value("${ewm.catalog.batch-size:1000}")
+    private int batchSize;
+
+    private final Object writeLock = new Object();
+    private volatile Snapshot snapshot = Snapshot.of(List.of());
+    private volatile boolean ready;
+    private volatile boolean dirty;
+    private final Map<Integer, Entry> queued = new HashMap<>();
+    private Map<Integer, Entry> pendingEntries;
+    private Map<Integer, Integer> pendingConfirmed;
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${ewm.catalog.rebuild-interval:PT1H}",
+            fixedDelayString = "${ewm.catalog.rebuild-interval:PT1H}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        long started = System.nanoTime();
+        synchronized (writeLock) {
+            pendingEntries = new HashMap<>(queued);
+            pendingConfirmed = new HashMap<>();
+        }
+        List<Entry> entries = new ArrayList<>();
+        long afterId = 0L;
+        List<Event> batch;
+        do {
+            batch = eventRepository.findAllByStateAndIdGreaterThanOrderByIdAsc(EventState.PUBLISHED, afterId,
+                    PageRequest.of(0, batchSize));
+            for (Event event : batch) {
+                entries.add(Entry.of(event));
+                afterId = event.getId();
+            }
+        } while (batch.size() == batchSize);
+
+        Snapshot rebuilt = Snapshot.of(entries);
+        synchronized (writeLock) {
+            rebuilt = rebuilt.with(pendingEntries);
+            for (Map.Entry<Integer, Integer> confirmed : pendingConfirmed.entrySet()) {
+                rebuilt = rebuilt.withConfirmed(confirmed.getKey(), confirmed.getValue());
+            }
+            pendingEntries = null;
+            pendingConfirmed = null;
+            queued.clear();
+            dirty = false;
+            snapshot = rebuilt;
+            ready = true;
+        }
+        log.info("Каталог опубликованных событий перестроен: событий={}, категорий={}, за {} мс",
+                rebuilt.size(), rebuilt.byCategory.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public void update(Event event) {
+        if (!enabled) {
+            return;
+        }
+        Entry entry = event.getState() == EventState.PUBLISHED ? Entry.of(event) : null;
+        int id = Math.toIntExact(event.getId());
+        AfterCommit.run(() -> {
+            synchronized (writeLock) {
+                queued.put(id, entry);
+                dirty = true;
+                if (pendingEntries != null) {
+                    pendingEntries.put(id, entry);
+                }
+            }
+        });
+    }
+
+    public void setConfirmedRequests(Long eventId, long confirmed) {
+        if (!enabled) {
+            return;
+        }
+        int id = Math.toIntExact(eventId);
+        int value = Math.toIntExact(confirmed);
+        AfterCommit.run(() -> {
+            synchronized (writeLock) {
+                snapshot = snapshot.withConfirmed(id, value);
+                queued.computeIfPresent(id, (key, entry) -> entry.withConfirmed(Math.max(entry.confirmed(), value)));
+                if (pendingConfirmed != null) {
+                    pendingConfirmed.merge(id, value, Math::max);
+                }
+            }
+        });
+    }
+
+    public List<Long> search(List<Long> categories, Boolean paid, LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                             boolean onlyAvailable, LocalDateTime cursorDate, Long cursorId, int offset, int limit) {
+        if (!isReady()) {
+            return null;
+        }
+        Snapshot current = current();
+        int low = rangeStart != null ? current.lowerBound(ceilSeconds(rangeStart), Integer.MIN_VALUE) : 0;
+        int high = rangeEnd != null ? current.lowerBound(epochSeconds(rangeEnd), Integer.MAX_VALUE) : current.size();
+        if (cursorDate != null) {
+            high = Math.min(high, current.lowerBound(epochSeconds(cursorDate), Math.toIntExact(cursorId)));
+        }
+
+        BitSet mask = null;
+        if (categories != null && !categories.isEmpty()) {
+            mask = new BitSet(current.size());
+            for (Long categoryId : categories) {
+                BitSet members = current.byCategory.get(categoryId);
+                if (members != null) {
+                    mask.or(members);
+                }
+            }
+        }
+        if (paid != null) {
+            BitSet members = paid ? current.paid : current.free;
+            if (mask == null) {
+                mask = (BitSet) members.clone();
+            } else {
+                mask.and(members);
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(limit);
+        int skipped = 0;
+        for (int i = high - 1; i >= low && ids.size() < limit; i--) {
+            if (mask != null) {
+                i = mask.previousSetBit(i);
+                if (i < low) {
+                    break;
+                }
+            }
+            if (onlyAvailable && current.limits[i] > 0 && current.confirmed(i) >= current.limits[i]) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                ids.add((long) current.ids[i]);
+            }
+        }
+        return ids;
+    }
+
+    private Snapshot current() {
+        if (dirty) {
+            synchronized (writeLock) {
+                if (!queued.isEmpty()) {
+                    snapshot = snapshot.with(queued);
+                    queued.clear();
+                }
+                dirty = false;
+            }
+        }
+        return snapshot;
+    }
+
+    private static long epochSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static long ceilSeconds(LocalDateTime time) {
+        return epochSeconds(time) + (time.getNano() > 0 ? 1 : 0);
+    }
+
+    private record Entry(int id, long date, long categoryId, boolean paid, int limit, int confirmed) {
+        private static final Comparator<Entry> ORDER = Comparator.comparingLong(Entry::date).thenComparingInt(Entry::id);
+
+        static Entry of(Event event) {
+            return new Entry(Math.toIntExact(event.getId()), epochSeconds(event.getEventDate()),
+                    event.getCategory().getId(), Boolean.TRUE.equals(event.getPaid()),
+                    event.getParticipantLimit() != null ? event.getParticipantLimit() : 0,
+                    event.getConfirmedRequests() != null ? Math.toIntExact(event.getConfirmedRequests()) : 0);
+        }
+
+        Entry withConfirmed(int confirmed) {
+            return new Entry(id, date, categoryId, paid, limit, confirmed);
+        }
+    }
+
+    private static final class Snapshot {
+        private static final int SEGMENT_BITS = 10;
+        private static final int SEGMENT_MASK = (1 << SEGMENT_BITS) - 1;
+
+        private final int[] ids;
+        private final long[] dates;
+        private final long[] categories;
+        private final int[] limits;
+        private final int[][] confirmed;
+        private final BitSet paid;
+        private final BitSet free;
+        private final Map<Long, BitSet> byCategory;
+        private final Map<Integer, Integer> positions;
+
+        private Snapshot(Snapshot source, int[][] confirmed) {
+            ids = source.ids;
+            dates = source.dates;
+            categories = source.categories;
+            limits = source.limits;
+            this.confirmed = confirmed;
+            paid = source.paid;
+            free = source.free;
+            byCategory = source.byCategory;
+            positions = source.positions;
+        }
+
+        private Snapshot(List<Entry> entries) {
+            int size = entries.size();
+            ids = new int[size];
+            dates = new long[size];
+            categories = new long[size];
+            limits = new int[size];
+            confirmed = new int[(size + SEGMENT_MASK) >>> SEGMENT_BITS][];
+            for (int segment = 0; segment < confirmed.length; segment++) {
+                confirmed[segment] = new int[Math.min(SEGMENT_MASK + 1, size - (segment << SEGMENT_BITS))];
+            }
+            paid = new BitSet(size);
+            byCategory = new HashMap<>();
+            positions = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                Entry entry = entries.get(i);
+                ids[i] = entry.id();
+                dates[i] = entry.date();
+                categories[i] = entry.categoryId();
+                limits[i] = entry.limit();
+                confirmed[i >>> SEGMENT_BITS][i & SEGMENT_MASK] = entry.confirmed();
+                paid.set(i, entry.paid());
+                byCategory.computeIfAbsent(entry.categoryId(), key -> new BitSet(size)).set(i);
+                positions.put(entry.id(), i);
+            }
+            free = (BitSet) paid.clone();
+            free.flip(0, size);
+        }
+
+        static Snapshot of(List<Entry> entries) {
+            List<Entry> sorted = new ArrayList<>(entries);
+            sorted.sort(Entry.ORDER);
+            return new Snapshot(sorted);
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        int confirmed(int i) {
+            return confirmed[i >>> SEGMENT_BITS][i & SEGMENT_MASK];
+        }
+
+        Snapshot with(Map<Integer, Entry> changes) {
+            Set<Integer> removed = new HashSet<>();
+            List<Entry> added = new ArrayList<>();
+            for (Map.Entry<Integer, Entry> change : changes.entrySet()) {
+                Integer position = positions.get(change.getKey());
+                Entry replacement = change.getValue();
+                if (position != null && replacement != null) {
+                    replacement = replacement.withConfirmed(confirmed(position));
+                    if (replacement.equals(entry(position))) {
+                        continue;
+                    }
+                }
+                if (position != null) {
+                    removed.add(change.getKey());
+                }
+                if (replacement != null) {
+                    added.add(replacement);
+                }
+            }
+            if (removed.isEmpty() && added.isEmpty()) {
+                return this;
+            }
+            added.sort(Entry.ORDER);
+            List<Entry> entries = new ArrayList<>(size() + added.size());
+            int next = 0;
+            for (int i = 0; i < size(); i++) {
+                if (removed.contains(ids[i])) {
+                    continue;
+                }
+                Entry entry = entry(i);
+                while (next < added.size() && Entry.ORDER.compare(added.get(next), entry) < 0) {
+                    entries.add(added.get(next++));
+                }
+                entries.add(entry);
+            }
+            entries.addAll(added.subList(next, added.size()));
+            return new Snapshot(entries);
+        }
+
+        Snapshot withConfirmed(int id, int value) {
+            Integer position = positions.get(id);
+            if (position == null || confirmed(position) >= value) {
+                return this;
+            }
+            int[][] updated = confirmed.clone();
+            int segment = position >>> SEGMENT_BITS;
+            updated[segment] = updated[segment].clone();
+            updated[segment][position & SEGMENT_MASK] = value;
+            return new Snapshot(this, updated);
+        }
+
+        private Entry entry(int i) {
+            return new Entry(ids[i], dates[i], categories[i], paid.get(i), limits[i], confirmed(i));
+        }
+
+        int lowerBound(long date, int id) {
+            int low = 0;
+            int high = size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (dates[middle] < date || dates[middle] == date && ids[middle] < id) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.explorewithme.server.service;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.practicum.explorewithme.server.entity.Event;
+import ru.practicum.explorewithme.server.repository.EventSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+public record EventCursor(LocalDateTime eventDate, Long views, Long id) {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String NEXT_CURSOR_ATTRIBUTE = EventCursor.class.getName() + ".NEXT";
+
+    private static final String BY_DATE = "d";
+    private static final String BY_VIEWS = "v";
+
+    public static EventCursor byDate(Event event) {
+        return new EventCursor(event.getEventDate(), null, event.getId());
+    }
+
+    public static EventCursor byDate(EventSummary event) {
+        return new EventCursor(event.eventDate(), null, event.id());
+    }
+
+    public static EventCursor byViews(EventSummary event) {
+        return new EventCursor(null, event.views(), event.id());
+    }
+
+    public static EventCursor decode(String value, boolean byViews) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Некорректный курсор: " + value);
+            }
+            Long id = Long.valueOf(parts[2]);
+            if (byViews && BY_VIEWS.equals(parts[0])) {
+                return new EventCursor(null, Long.valueOf(parts[1]), id);
+            }
+            if (!byViews && BY_DATE.equals(parts[0])) {
+                return new EventCursor(LocalDateTime.parse(parts[1]), null, id);
+            }
+            throw new IllegalArgumentException("Курсор не соответствует сортировке: " + value);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Некорректный курсор: " + value);
+        }
+    }
+
+    public static <T> void exposeNext(List<T> page, int size, Function<T, EventCursor> cursorOf) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null || page.isEmpty() || page.size() < size) {
+            return;
+        }
+        EventCursor next = cursorOf.apply(page.get(page.size() - 1));
+        attributes.setAttribute(NEXT_CURSOR_ATTRIBUTE, next.encode(), RequestAttributes.SCOPE_REQUEST);
+    }
+
+    public String encode() {
+        String value = views != null ? BY_VIEWS + "|" + views + "|" + id : BY_DATE + "|" + eventDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
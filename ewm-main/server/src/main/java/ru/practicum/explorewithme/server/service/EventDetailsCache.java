@@ -0,0 +1,118 @@
+package ru.practicum.explorewithme.server.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.explorewithme.event.dto.EventFullDto;
+import ru.practicum.explorewithme.server.repository.EventRepository;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventDetailsCache {
+    private static final int VERSION_STRIPES = 1024;
+
+    private final EventRepository eventRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ewm.cache.event-details.max-size:10000}")
+    private long maxSize;
+    @Value("${ewm.cache.event-details.ttl:PT10M}")
+    private Duration ttl;
+
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private Cache<Long, EventFullDto> details;
+    private Cache<Long, Long> confirmedRequests;
+
+    @PostConstruct
+    public void init() {
+        details = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        confirmedRequests = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, details, "eventDetails");
+        CaffeineCacheMetrics.monitor(meterRegistry, confirmedRequests, "eventConfirmedRequests");
+    }
+
+    public EventFullDto get(Long eventId, Supplier<EventFullDto> loader) {
+        EventFullDto cached = details.getIfPresent(eventId);
+        if (cached == null) {
+            long loadedAt = version(eventId);
+            EventFullDto loaded = loader.get();
+            EventFullDto stored = loaded.toBuilder().confirmedRequests(null).views(null).build();
+            details.asMap().compute(eventId, (id, existing) -> version(id) == loadedAt ? stored : existing);
+            storeConfirmedRequests(eventId, loadedAt,
+                    loaded.getConfirmedRequests() != null ? loaded.getConfirmedRequests() : 0L);
+            return loaded;
+        }
+        return cached.toBuilder().confirmedRequests(getConfirmedRequests(eventId)).build();
+    }
+
+    public void evict(Long eventId) {
+        AfterCommit.run(() -> {
+            versions.incrementAndGet(stripe(eventId));
+            details.invalidate(eventId);
+            confirmedRequests.invalidate(eventId);
+            log.debug("Событие {} удалено из кэша", eventId);
+        });
+    }
+
+    public void setConfirmedRequests(Long eventId, long confirmed) {
+        AfterCommit.run(() -> confirmedRequests.asMap().merge(eventId, confirmed, Math::max));
+    }
+
+    public void evictAll() {
+        AfterCommit.run(() -> {
+            for (int i = 0; i < VERSION_STRIPES; i++) {
+                versions.incrementAndGet(i);
+            }
+            details.invalidateAll();
+            confirmedRequests.invalidateAll();
+            log.debug("Кэш событий очищен");
+        });
+    }
+
+    private Long getConfirmedRequests(Long eventId) {
+        Long cached = confirmedRequests.getIfPresent(eventId);
+        if (cached != null) {
+            return cached;
+        }
+        long loadedAt = version(eventId);
+        Long loaded = eventRepository.findConfirmedRequestsById(eventId).orElse(0L);
+        return storeConfirmedRequests(eventId, loadedAt, loaded);
+    }
+
+    private Long storeConfirmedRequests(Long eventId, long loadedAt, Long loaded) {
+        Long stored = confirmedRequests.asMap().compute(eventId, (id, existing) -> {
+            if (version(id) != loadedAt) {
+                return existing;
+            }
+            return existing != null ? Math.max(existing, loaded) : loaded;
+        });
+        return stored != null ? stored : loaded;
+    }
+
+    private long version(Long eventId) {
+        return versions.get(stripe(eventId));
+    }
+
+    private static int stripe(Long eventId) {
+        return Long.hashCode(eventId) & (VERSION_STRIPES - 1);
+    }
+}
@@ -1,10 +1,10 @@
 package ru.practicum.explorewithme.server.service;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -14,14 +14,16 @@ import ru.practicum.explorewithme.server.entity.*;
 import ru.practicum.explorewithme.server.exception.EntityNotFoundException;
 import ru.practicum.explorewithme.server.mapper.EventMapper;
 import ru.practicum.explorewithme.server.repository.EventRepository;
-import ru.practicum.explorewithme.server.repository.RequestRepository;
+import ru.practicum.explorewithme.server.repository.EventSearchCriteria;
+import ru.practicum.explorewithme.server.repository.EventSummary;
 import ru.practicum.explorewithme.client.StatClient;
 import ru.practicum.explorewithme.stats.dto.EndpointHit;
-import ru.practicum.explorewithme.stats.dto.ViewStats;
-import ru.practicum.explorewithme.server.entity.RequestStatus;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -31,12 +33,19 @@ public class EventService {
     private final EventRepository eventRepository;
     private final UserService userService;
     private final CategoryService categoryService;
-    private final RequestRepository requestRepository;
     private final StatClient statClient;
+    private final EventViewsService eventViewsService;
+    private final EventTextIndex eventTextIndex;
+    private final EventCatalog eventCatalog;
+    private final EventDetailsCache eventDetailsCache;
+    private final PublicEventSearchCache publicEventSearchCache;
+    private final CompilationViewStore compilationViewStore;
     private final EventMapper eventMapper;
 
-    @PersistenceContext
-    private EntityManager entityManager;
+    private final MeterRegistry meterRegistry;
+
+    private final SingleFlight<Long, EventFullDto> publicEventLookups = new SingleFlight<>();
+    private final SingleFlight<Long, Long> viewsLookups = new SingleFlight<>();
 
     private static final String APP_NAME = "ewm-main";
     private static final String EVENTS_URI = "/events";
@@ -44,6 +53,18 @@ public class EventService {
     private static final long USER_HOURS_AHEAD = 2L;
     private static final long ADMIN_HOURS_AHEAD = 1L;
 
+    @PostConstruct
+    public void registerMetrics() {
+        FunctionCounter.builder("ewm.events.lookups.coalesced", publicEventLookups, SingleFlight::getCoalescedCount)
+                .tag("lookup", "event")
+                .description("Запросы события, объединённые с уже выполняющимся")
+                .register(meterRegistry);
+        FunctionCounter.builder("ewm.events.lookups.coalesced", viewsLookups, SingleFlight::getCoalescedCount)
+                .tag("lookup", "views")
+                .description("Запросы просмотров, объединённые с уже выполняющимся")
+                .register(meterRegistry);
+    }
+
     @Transactional
     public EventFullDto create(Long userId, NewEventDto newEvent) {
         log.info("Создание события для пользователя {} с заголовком '{}'", userId, newEvent.getTitle());
@@ -73,15 +94,16 @@ public class EventService {
                 .build();
 
         event = eventRepository.save(event);
-        entityManager.flush();
+        eventTextIndex.index(event);
         log.info("Событие создано с ID {}", event.getId());
 
-        Long confirmedRequests = getConfirmedCount(event.getId());
-        Long views = getViewsForEvent(event.getId());
+        Long confirmedRequests = event.getConfirmedRequests();
+        Long views = eventViewsService.getViews(event.getId());
 
         return eventMapper.toFullDto(event, confirmedRequests, views, true);
     }
 
+    @Transactional
     public EventFullDto updateUser(Long userId, Long eventId, UpdateEventUserRequest update) {
         log.info("Обновление события пользователя {} для пользователя {}", eventId, userId);
         Event event = getById(eventId);
@@ -109,10 +131,14 @@ public class EventService {
         }
         updateFieldsUser(event, update);
         event = eventRepository.save(event);
+        eventTextIndex.index(event);
+        eventCatalog.update(event);
+        eventDetailsCache.evict(eventId);
+        compilationViewStore.updateEvent(event);
         log.info("Событие пользователя {} обновлено", eventId);
 
-        Long confirmedRequests = getConfirmedCount(event.getId());
-        Long views = getViewsForEvent(event.getId());
+        Long confirmedRequests = event.getConfirmedRequests();
+        Long views = eventViewsService.getViews(event.getId());
 
         return eventMapper.toFullDto(event, confirmedRequests, views, false);
     }
@@ -121,6 +147,8 @@ public class EventService {
     public EventFullDto updateAdmin(Long eventId, UpdateEventAdminRequest update) {
         log.info("Обновление события админом {}", eventId);
         Event event = getById(eventId);
+        boolean wasPublished = event.getState() == EventState.PUBLISHED;
+        Long previousCategoryId = event.getCategory().getId();
 
         if (update.getEventDate() != null &&
                 update.getEventDate().isBefore(LocalDateTime.now().plusHours(ADMIN_HOURS_AHEAD))) {
@@ -147,105 +175,169 @@ public class EventService {
 
         updateFieldsAdmin(event, update);
         event = eventRepository.save(event);
+        eventTextIndex.index(event);
+        eventCatalog.update(event);
+        eventDetailsCache.evict(eventId);
+        compilationViewStore.updateEvent(event);
+        if (wasPublished || event.getState() == EventState.PUBLISHED) {
+            publicEventSearchCache.evictCategories(List.of(previousCategoryId, event.getCategory().getId()));
+        }
         log.info("Событие админа {} обновлено", eventId);
 
-        Long confirmedRequests = getConfirmedCount(event.getId());
-        Long views = getViewsForEvent(event.getId());
+        Long confirmedRequests = event.getConfirmedRequests();
+        Long views = eventViewsService.getViews(event.getId());
 
         return eventMapper.toFullDto(event, confirmedRequests, views, false);
     }
 
-    public List<EventShortDto> getUserEvents(Long userId, Integer from, Integer size) {
+    public List<EventShortDto> getUserEvents(Long userId, Integer from, Integer size, String cursor) {
         int safeFrom = from != null ? from : 0;
         int safeSize = size != null ? size : 10;
-
-        PageRequest pageable = PageRequest.of(0, safeFrom + safeSize, Sort.by("eventDate").descending());
-        List<Event> events = eventRepository.findAllByInitiatorId(userId, pageable);
-
-        int endIndex = Math.min(events.size(), safeFrom + safeSize);
-        if (safeFrom >= endIndex) {
-            return List.of();
+        EventCursor after = EventCursor.decode(cursor, false);
+        Sort sortBy = Sort.by(Sort.Order.desc("eventDate"), Sort.Order.desc("id"));
+
+        List<EventSummary> page;
+        if (after != null) {
+            page = eventRepository.findUserEventsAfter(userId, after.eventDate(), after.id(),
+                    PageRequest.of(0, safeSize, sortBy));
+        } else {
+            PageRequest pageable = PageRequest.of(0, safeFrom + safeSize, sortBy);
+            List<EventSummary> events = eventRepository.findUserEvents(userId, pageable);
+
+            int endIndex = Math.min(events.size(), safeFrom + safeSize);
+            if (safeFrom >= endIndex) {
+                return List.of();
+            }
+            page = events.subList(safeFrom, endIndex);
         }
 
-        return events.subList(safeFrom, endIndex).stream()
-                .map(e -> {
-                    Long confirmedRequests = getConfirmedCount(e.getId());
-                    Long views = getViewsForEvent(e.getId());
-                    return eventMapper.toShortDto(e, confirmedRequests, views);
-                })
+        EventCursor.exposeNext(page, safeSize, EventCursor::byDate);
+        Map<Long, Long> views = eventViewsService.getViews(page.stream().map(EventSummary::id).toList());
+
+        return page.stream()
+                .map(e -> eventMapper.toShortDto(e, views.get(e.id())))
                 .collect(Collectors.toList());
     }
 
     public List<EventFullDto> getAdminEvents(List<Long> users, List<EventState> states, List<Long> categories,
-                                             LocalDateTime rangeStart, LocalDateTime rangeEnd, Integer from, Integer size) {
-        if (rangeStart == null) {
-            rangeStart = LocalDateTime.of(1900, 1, 1, 0, 0);
-        }
-        if (rangeEnd == null) {
-            rangeEnd = LocalDateTime.now().plusYears(10);
-        }
-
-        Sort sortBy = Sort.by("eventDate").descending().and(Sort.by("id").ascending());
-        PageRequest pageable = PageRequest.of(from / size, size, sortBy);
+                                             LocalDateTime rangeStart, LocalDateTime rangeEnd, Integer from, Integer size,
+                                             String cursor) {
+        EventCursor after = EventCursor.decode(cursor, false);
+        Sort sortBy = Sort.by(Sort.Order.desc("eventDate"), Sort.Order.desc("id"));
+        PageRequest pageable = PageRequest.of(after == null ? from / size : 0, size, sortBy);
+
+        EventSearchCriteria criteria = EventSearchCriteria.builder()
+                .users(users)
+                .states(states)
+                .categories(categories)
+                .rangeStart(rangeStart)
+                .rangeEnd(rangeEnd)
+                .cursorDate(after != null ? after.eventDate() : null)
+                .cursorId(after != null ? after.id() : null)
+                .build();
+        List<Event> events = eventRepository.findEvents(criteria, pageable);
+        EventCursor.exposeNext(events, size, EventCursor::byDate);
+        Map<Long, Long> views = eventViewsService.getViews(events.stream().map(Event::getId).toList());
 
-        List<Event> events = eventRepository.findAdminEvents(users, states, categories, rangeStart, rangeEnd, pageable);
         return events.stream()
-                .map(e -> {
-                    Long confirmedRequests = getConfirmedCount(e.getId());
-                    Long views = getViewsForEvent(e.getId());
-                    return eventMapper.toFullDto(e, confirmedRequests, views, false);
-                })
+                .map(e -> eventMapper.toFullDto(e, e.getConfirmedRequests(), views.get(e.getId()), false))
                 .collect(Collectors.toList());
     }
 
     public List<EventShortDto> getPublicEvents(String text, List<Long> categories, Boolean paid,
                                                LocalDateTime rangeStart, LocalDateTime rangeEnd, Boolean onlyAvailable,
-                                               String sort, Integer from, Integer size, String remoteAddr) {
-        int page = from != null ? from / (size != null ? size : 10) : 0;
+                                               String sort, Integer from, Integer size, String cursor,
+                                               String remoteAddr) {
         int pageSize = size != null ? size : 10;
+        boolean byViews = "VIEWS".equals(sort);
+        EventCursor after = EventCursor.decode(cursor, byViews);
+        int page = after == null && from != null ? from / pageSize : 0;
 
-        Sort sortBy = "VIEWS".equals(sort) ? Sort.by("eventDate").descending() : Sort.by("eventDate").descending();
+        Sort sortBy = byViews
+                ? Sort.by(Sort.Order.desc("views"), Sort.Order.desc("id"))
+                : Sort.by(Sort.Order.desc("eventDate"), Sort.Order.desc("id"));
 
         PageRequest pageable = PageRequest.of(page, pageSize, sortBy);
 
-        LocalDateTime start = rangeStart != null ? rangeStart : LocalDateTime.now();
-        LocalDateTime end = rangeEnd != null ? rangeEnd : LocalDateTime.now().plusYears(1);
+        LocalDateTime start = rangeStart != null ? rangeStart : publicEventSearchCache.quantize(LocalDateTime.now());
 
-        if (rangeStart != null && rangeEnd != null && start.isAfter(end)) {
+        if (rangeStart != null && rangeEnd != null && rangeStart.isAfter(rangeEnd)) {
             log.warn("Неверный диапазон дат: rangeStart после rangeEnd");
             throw new IllegalArgumentException("Неверный диапазон дат: rangeStart должен быть раньше rangeEnd");
         }
 
-        String searchText = (text == null || text.trim().isEmpty()) ? "" : text.trim();
-
-        Page<Event> eventsPage = eventRepository.findPublicEvents(
-                searchText,
-                categories,
-                paid,
-                start,
-                end,
-                onlyAvailable,
-                EventState.PUBLISHED,
-                pageable
-        );
+        String searchText = (text == null || text.trim().isEmpty()) ? null : text.trim();
+        boolean rankByText = searchText != null && sort == null && after == null && !eventTextIndex.isEnabled();
+        EventSearchCriteria.EventSearchCriteriaBuilder criteria = EventSearchCriteria.builder()
+                .states(List.of(EventState.PUBLISHED))
+                .categories(categories)
+                .paid(paid)
+                .rangeStart(start)
+                .rangeEnd(rangeEnd)
+                .onlyAvailable(Boolean.TRUE.equals(onlyAvailable))
+                .cursorDate(after != null ? after.eventDate() : null)
+                .cursorViews(after != null ? after.views() : null)
+                .cursorId(after != null ? after.id() : null);
+
+        PublicEventSearchCache.Key key = PublicEventSearchCache.Key.of(searchText, categories, paid, start, rangeEnd,
+                Boolean.TRUE.equals(onlyAvailable), byViews ? "VIEWS" : sort == null ? null : "EVENT_DATE",
+                page, pageSize, cursor);
+        List<EventSummary> events = publicEventSearchCache.get(key, () -> {
+            if (searchText == null && !byViews) {
+                List<Long> ids = eventCatalog.search(categories, paid, start, rangeEnd,
+                        Boolean.TRUE.equals(onlyAvailable), after != null ? after.eventDate() : null,
+                        after != null ? after.id() : null, page * pageSize, pageSize);
+                if (ids != null) {
+                    return hydrate(ids, Boolean.TRUE.equals(onlyAvailable), sortBy);
+                }
+            }
+            if (searchText == null || !eventTextIndex.isEnabled()) {
+                return eventRepository.findEventSummaries(criteria
+                        .text(searchText)
+                        .rankByText(rankByText)
+                        .build(), pageable);
+            }
+            int[] candidates = eventTextIndex.search(searchText);
+            if (candidates != null && candidates.length == 0) {
+                return List.of();
+            }
+            return eventRepository.findEventSummaries(criteria
+                    .ids(candidates != null ? Arrays.stream(candidates).asLongStream().boxed().toList() : null)
+                    .substring("%" + escapeLike(searchText.toLowerCase(Locale.ROOT)) + "%")
+                    .build(), pageable);
+        });
 
-        if (eventsPage.isEmpty()) {
+        if (events.isEmpty()) {
             sendHit(remoteAddr);
             return List.of();
         }
 
-        List<EventShortDto> shortDtos = eventsPage.getContent().stream()
-                .map(e -> {
-                    Long confirmedRequests = getConfirmedCount(e.getId());
-                    Long views = getViewsForEvent(e.getId());
-                    return eventMapper.toShortDto(e, confirmedRequests, views);
-                })
+        if (!rankByText) {
+            EventCursor.exposeNext(events, pageSize, byViews ? EventCursor::byViews : EventCursor::byDate);
+        }
+        List<EventShortDto> shortDtos = events.stream()
+                .map(e -> eventMapper.toShortDto(e, e.views()))
                 .collect(Collectors.toList());
 
         sendHit(remoteAddr);
         return shortDtos;
     }
 
+    private List<EventSummary> hydrate(List<Long> ids, boolean onlyAvailable, Sort sortBy) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return eventRepository.findEventSummaries(EventSearchCriteria.builder()
+                .ids(ids)
+                .states(List.of(EventState.PUBLISHED))
+                .onlyAvailable(onlyAvailable)
+                .build(), PageRequest.of(0, ids.size(), sortBy));
+    }
+
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     private void sendHit(String remoteAddr) {
         EndpointHit hit = EndpointHit.builder()
                 .app(APP_NAME)
@@ -257,11 +349,8 @@ public class EventService {
     }
 
     public EventFullDto getPublicEvent(Long eventId, String remoteAddr) {
-        Event event = getById(eventId);
-
-        if (event.getState() != EventState.PUBLISHED) {
-            throw new EntityNotFoundException("Событие не опубликовано");
-        }
+        EventFullDto event = eventDetailsCache.get(eventId,
+                () -> publicEventLookups.execute(eventId, () -> loadPublicEvent(eventId)));
 
         EndpointHit hit = EndpointHit.builder()
                 .app(APP_NAME)
@@ -270,28 +359,34 @@ public class EventService {
                 .timestamp(LocalDateTime.now())
                 .build();
         statClient.postHit(hit);
+        eventViewsService.recordView(eventId);
 
-        Long views = getViewsForEvent(eventId);
-        views = (views != null ? views : 0L) + 1;
-
-        Long confirmedRequests = getConfirmedCount(event.getId());
-
-        EventFullDto dto = eventMapper.toFullDto(event, confirmedRequests, views, false);
-        dto.setViews(views);
+        Long views = viewsLookups.execute(eventId, () -> eventViewsService.getViews(eventId));
+        EventFullDto dto = event.toBuilder().views(views).build();
 
         log.info("Просмотр события {} после запроса {}: {}", eventId, remoteAddr, dto.getViews());
 
         return dto;
     }
 
+    private EventFullDto loadPublicEvent(Long eventId) {
+        Event event = getById(eventId);
+
+        if (event.getState() != EventState.PUBLISHED) {
+            throw new EntityNotFoundException("Событие не опубликовано");
+        }
+
+        return eventMapper.toFullDto(event, event.getConfirmedRequests(), null, false);
+    }
+
     public EventFullDto getUserEvent(Long userId, Long eventId) {
         Event event = getById(eventId);
         if (!event.getInitiator().getId().equals(userId)) {
             throw new EntityNotFoundException("Событие недоступно для этого пользователя");
         }
 
-        Long confirmedRequests = getConfirmedCount(event.getId());
-        Long views = getViewsForEvent(event.getId());
+        Long confirmedRequests = event.getConfirmedRequests();
+        Long views = eventViewsService.getViews(event.getId());
 
         return eventMapper.toFullDto(event, confirmedRequests, views, false);
     }
@@ -330,14 +425,4 @@ public class EventService {
         if (dto == null) return null;
         return new EventLocation(dto.getLat(), dto.getLon());
     }
-
-    public Long getConfirmedCount(Long eventId) {
-        return requestRepository.countByEventIdAndStatus(eventId, RequestStatus.CONFIRMED);
-    }
-
-    public Long getViewsForEvent(Long eventId) {
-        List<ViewStats> stats = statClient.getStats(LocalDateTime.now().minusYears(1),
-                LocalDateTime.now(), List.of("/events/" + eventId), false).getBody();
-        return stats != null && !stats.isEmpty() ? stats.get(0).getHits() : 0L;
-    }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,232 @@
+package ru.practicum.explorewithme.server.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.explorewithme.server.entity.Event;
+import ru.practicum.explorewithme.server.entity.EventState;
+import ru.practicum.explorewithme.server.repository.EventRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventTextIndex {
+    public static final String ENGINE = "ngram";
+    private static final int GRAM = 3;
+
+    private final EventRepository eventRepository;
+
+    @Value("${ewm.search.engine:database}")
+    private String engine;
+    @Value("${ewm.search.ngram.batch-size:1000}")
+    private int batchSize;
+    @Value("${ewm.search.ngram.max-candidates:10000}")
+    private int maxCandidates;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Postings> postings = new HashMap<>();
+    private List<Event> pendingAdds;
+    private volatile boolean ready;
+
+    public boolean isEnabled() {
+        return ENGINE.equals(engine);
+    }
+
+    private boolean isReady() {
+        return isEnabled() && ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (isEnabled()) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${ewm.search.ngram.rebuild-interval:PT1H}",
+            fixedDelayString = "${ewm.search.ngram.rebuild-interval:PT1H}")
+    public void scheduledRebuild() {
+        if (isEnabled()) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        long started = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            pendingAdds = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Map<Long, Postings> rebuilt = new HashMap<>();
+        long afterId = 0L;
+        int documents = 0;
+        List<Event> batch;
+        try {
+            do {
+                batch = eventRepository.findAllByStateAndIdGreaterThanOrderByIdAsc(EventState.PUBLISHED, afterId,
+                        PageRequest.of(0, batchSize));
+                for (Event event : batch) {
+                    addDocument(rebuilt, event);
+                    afterId = event.getId();
+                }
+                documents += batch.size();
+            } while (batch.size() == batchSize);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingAdds = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        rebuilt.values().forEach(Postings::trim);
+
+        lock.writeLock().lock();
+        try {
+            pendingAdds.forEach(event -> addDocument(rebuilt, event));
+            pendingAdds = null;
+            postings = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Текстовый индекс событий перестроен: документов={}, триграмм={}, за {} мс",
+                documents, rebuilt.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public void index(Event event) {
+        if (!isEnabled() || event.getState() != EventState.PUBLISHED) {
+            return;
+        }
+        AfterCommit.run(() -> add(event));
+    }
+
+    public int[] search(String text) {
+        long[] grams = grams(text.toLowerCase(Locale.ROOT));
+        if (!isReady() || grams.length == 0) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postings.get(grams[i]);
+                if (lists[i] == null) {
+                    return new int[0];
+                }
+            }
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+            int[] result = Arrays.copyOf(lists[0].ids, lists[0].size);
+            int size = result.length;
+            for (int i = 1; i < lists.length && size > 0; i++) {
+                size = intersect(result, size, lists[i]);
+            }
+            return size <= maxCandidates ? Arrays.copyOf(result, size) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Event event) {
+        lock.writeLock().lock();
+        try {
+            addDocument(postings, event);
+            if (pendingAdds != null) {
+                pendingAdds.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void addDocument(Map<Long, Postings> target, Event event) {
+        int id = Math.toIntExact(event.getId());
+        String document = String.join("\n", nullToEmpty(event.getTitle()), nullToEmpty(event.getAnnotation()),
+                nullToEmpty(event.getDescription())).toLowerCase(Locale.ROOT);
+        for (long gram : grams(document)) {
+            target.computeIfAbsent(gram, key -> new Postings()).add(id);
+        }
+    }
+
+    private static long[] grams(String text) {
+        if (text.length() < GRAM) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() - GRAM + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) (text.charAt(i + 1) & 0xFFFF) << 16) | text.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    private static int intersect(int[] result, int size, Postings other) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < size && j < other.size; i++) {
+            while (j < other.size && other.ids[j] < result[i]) {
+                j++;
+            }
+            if (j < other.size && other.ids[j] == result[i]) {
+                result[kept++] = result[i];
+            }
+        }
+        return kept;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] < id) {
+                append(id);
+                return;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            ensureCapacity();
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        private void append(int id) {
+            ensureCapacity();
+            ids[size++] = id;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(4, size * 2));
+            }
+        }
+
+        void trim() {
+            ids = Arrays.copyOf(ids, size);
+        }
+    }
+}
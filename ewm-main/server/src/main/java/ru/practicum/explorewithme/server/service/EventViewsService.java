@@ -0,0 +1,146 @@
+package ru.practicum.explorewithme.server.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.practicum.explorewithme.client.StatClient;
+import ru.practicum.explorewithme.stats.dto.ViewStats;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventViewsService {
+    private final StatClient statClient;
+
+    @Value("${ewm.enrichment.deadline:1500ms}")
+    private Duration deadline;
+    @Value("${ewm.enrichment.batch-size:100}")
+    private int batchSize;
+    @Value("${ewm.enrichment.views-ttl:PT5S}")
+    private Duration viewsTtl;
+    @Value("${ewm.enrichment.views-max-size:10000}")
+    private long viewsMaxSize;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private Cache<Long, Long> recentViews;
+
+    static final LocalDateTime STATS_EPOCH = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private static final String EVENTS_URI = "/events/";
+
+    @PostConstruct
+    public void init() {
+        recentViews = Caffeine.newBuilder()
+                .maximumSize(viewsMaxSize)
+                .expireAfterWrite(viewsTtl)
+                .build();
+    }
+
+    public Long getViews(Long eventId) {
+        return recentViews.get(eventId, this::loadViews);
+    }
+
+    public void recordView(Long eventId) {
+        recentViews.asMap().computeIfPresent(eventId, (id, views) -> views + 1);
+    }
+
+    private Long loadViews(Long eventId) {
+        List<ViewStats> stats = statClient.getStats(STATS_EPOCH, LocalDateTime.now(),
+                List.of(EVENTS_URI + eventId), false).getBody();
+        return stats != null && !stats.isEmpty() ? stats.get(0).getHits() : 0L;
+    }
+
+    public Map<Long, Long> getViews(Collection<Long> eventIds) {
+        List<Long> ids = eventIds.stream().distinct().toList();
+        Map<Long, Long> views = new HashMap<>();
+        if (ids.isEmpty()) {
+            return views;
+        }
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        List<List<Long>> batches = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += batchSize) {
+            batches.add(ids.subList(i, Math.min(ids.size(), i + batchSize)));
+        }
+        List<Callable<Map<Long, Long>>> lookups = new ArrayList<>(batches.size());
+        for (List<Long> batch : batches) {
+            lookups.add(() -> {
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+                try {
+                    return getBatchViews(batch);
+                } finally {
+                    RequestContextHolder.resetRequestAttributes();
+                }
+            });
+        }
+
+        List<Future<Map<Long, Long>>> results;
+        try {
+            results = executor.invokeAll(lookups, deadline.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Получение просмотров прервано", e);
+        }
+
+        int timedOut = 0;
+        for (int i = 0; i < batches.size(); i++) {
+            try {
+                views.putAll(results.get(i).get());
+            } catch (CancellationException | ExecutionException e) {
+                timedOut += batches.get(i).size();
+                batches.get(i).forEach(id -> views.put(id, 0L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Получение просмотров прервано", e);
+            }
+        }
+        if (timedOut > 0) {
+            log.warn("Просмотры не получены за {} для {} из {} событий", deadline, timedOut, ids.size());
+            statClient.markDegraded();
+        }
+        return views;
+    }
+
+    private Map<Long, Long> getBatchViews(List<Long> ids) {
+        Map<String, Long> idsByUri = new HashMap<>();
+        ids.forEach(id -> idsByUri.put(EVENTS_URI + id, id));
+        List<ViewStats> stats = statClient.getStats(STATS_EPOCH, LocalDateTime.now(),
+                List.copyOf(idsByUri.keySet()), false).getBody();
+
+        Map<Long, Long> views = new HashMap<>();
+        ids.forEach(id -> views.put(id, 0L));
+        if (stats != null) {
+            stats.stream()
+                    .filter(stat -> idsByUri.containsKey(stat.getUri()))
+                    .forEach(stat -> views.put(idsByUri.get(stat.getUri()), stat.getHits()));
+        }
+        return views;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.explorewithme.server.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.explorewithme.client.StatClient;
+import ru.practicum.explorewithme.stats.dto.ViewStats;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventViewsSyncService {
+    private final StatClient statClient;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${ewm.views-sync.lag:5s}")
+    private Duration lag;
+    @Value("${ewm.views-sync.window:PT10M}")
+    private Duration window;
+    @Value("${ewm.views-sync.batch-size:100}")
+    private int batchSize;
+
+    private volatile boolean backfilled;
+
+    private static final Pattern EVENT_URI = Pattern.compile("^/events/(\\d+)$");
+    private static final String SET_VIEWS =
+            "UPDATE events SET views = ? WHERE id = ? AND (views IS NULL OR views < ?)";
+
+    @Scheduled(initialDelayString = "${ewm.views-sync.initial-delay:PT5S}",
+            fixedDelayString = "${ewm.views-sync.interval:PT10S}")
+    @Transactional
+    public void sync() {
+        LocalDateTime end = LocalDateTime.now().minus(lag).truncatedTo(ChronoUnit.SECONDS);
+        boolean fullSync = !backfilled;
+        List<ViewStats> totals;
+        try {
+            totals = fullSync ? eventStats(EventViewsService.STATS_EPOCH, end, null) : recentTotals(end);
+        } catch (RuntimeException e) {
+            log.warn("Синхронизация просмотров отложена, сервис статистики недоступен: {}", e.getMessage());
+            return;
+        }
+
+        List<Object[]> updates = new ArrayList<>();
+        for (ViewStats viewStats : totals) {
+            Matcher matcher = EVENT_URI.matcher(viewStats.getUri());
+            if (matcher.matches() && viewStats.getHits() != null && viewStats.getHits() > 0) {
+                updates.add(new Object[]{viewStats.getHits(), Long.parseLong(matcher.group(1)),
+                        viewStats.getHits()});
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(SET_VIEWS, updates);
+        }
+        backfilled = true;
+        log.debug("Синхронизация просмотров {}: обновлено событий {}, до {}",
+                fullSync ? "полная" : "по активным событиям", updates.size(), end);
+    }
+
+    private List<ViewStats> recentTotals(LocalDateTime end) {
+        List<String> active = eventStats(end.minus(window), end, null).stream()
+                .map(ViewStats::getUri)
+                .distinct()
+                .toList();
+        List<ViewStats> totals = new ArrayList<>();
+        for (int i = 0; i < active.size(); i += batchSize) {
+            totals.addAll(eventStats(EventViewsService.STATS_EPOCH, end,
+                    active.subList(i, Math.min(active.size(), i + batchSize))));
+        }
+        return totals;
+    }
+
+    private List<ViewStats> eventStats(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        return statClient.getStatsWithoutFallback(start, end, uris, false).stream()
+                .filter(stats -> stats.getUri() != null && EVENT_URI.matcher(stats.getUri()).matches())
+                .toList();
+    }
+}
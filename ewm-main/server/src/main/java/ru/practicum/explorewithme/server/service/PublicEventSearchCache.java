@@ -0,0 +1,115 @@
+package ru.practicum.explorewithme.server.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.explorewithme.server.repository.EventSummary;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PublicEventSearchCache {
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ewm.cache.public-events.max-size:1000}")
+    private long maxSize;
+    @Value("${ewm.cache.public-events.ttl:PT30S}")
+    private Duration ttl;
+    @Value("${ewm.cache.public-events.quantum:PT1M}")
+    private Duration quantum;
+
+    private final AtomicLong version = new AtomicLong();
+    private Cache<Key, List<EventSummary>> results;
+
+    @PostConstruct
+    public void init() {
+        results = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "publicEventSearch");
+    }
+
+    public LocalDateTime quantize(LocalDateTime time) {
+        long step = quantum.toSeconds();
+        if (step <= 1) {
+            return time.withNano(0);
+        }
+        long seconds = time.toEpochSecond(ZoneOffset.UTC);
+        return LocalDateTime.ofEpochSecond(seconds - Math.floorMod(seconds, step), 0, ZoneOffset.UTC);
+    }
+
+    public List<EventSummary> get(Key key, Supplier<List<EventSummary>> loader) {
+        List<EventSummary> cached = results.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long loadedAt = version.get();
+        List<EventSummary> loaded = List.copyOf(loader.get());
+        if (version.get() == loadedAt) {
+            results.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    public void evictCategories(Collection<Long> categoryIds) {
+        AfterCommit.run(() -> {
+            version.incrementAndGet();
+            results.asMap().keySet().removeIf(key -> key.matchesAnyCategory(categoryIds));
+            log.debug("Кэш выдачи событий очищен для категорий {}", categoryIds);
+        });
+    }
+
+    public void evictAvailable(Long categoryId) {
+        AfterCommit.run(() -> {
+            version.incrementAndGet();
+            results.asMap().keySet().removeIf(key -> key.onlyAvailable() && key.matchesAnyCategory(Set.of(categoryId)));
+            log.debug("Кэш выдачи доступных событий очищен для категории {}", categoryId);
+        });
+    }
+
+    public void evictAll() {
+        AfterCommit.run(() -> {
+            version.incrementAndGet();
+            results.invalidateAll();
+            log.debug("Кэш выдачи событий очищен");
+        });
+    }
+
+    public record Key(String text, List<Long> categories, Boolean paid, LocalDateTime rangeStart,
+                      LocalDateTime rangeEnd, boolean onlyAvailable, String sort, int page, int size,
+                      String cursor) {
+
+        public static Key of(String text, List<Long> categories, Boolean paid, LocalDateTime rangeStart,
+                             LocalDateTime rangeEnd, boolean onlyAvailable, String sort, int page, int size,
+                             String cursor) {
+            return new Key(text != null ? text.toLowerCase(Locale.ROOT) : null,
+                    categories == null || categories.isEmpty() ? null
+                            : categories.stream().filter(Objects::nonNull).distinct().sorted().toList(),
+                    paid, rangeStart, rangeEnd, onlyAvailable, sort, page, size,
+                    cursor == null || cursor.isBlank() ? null : cursor);
+        }
+
+        boolean matchesAnyCategory(Collection<Long> categoryIds) {
+            return categories == null || categoryIds.stream().anyMatch(categories::contains);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.explorewithme.server.service;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.practicum.explorewithme.server.repository.RequestSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+public record RequestCursor(Long id) {
+    private static final String PREFIX = "r|";
+
+    public static RequestCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Некорректный курсор: " + value);
+            }
+            return new RequestCursor(Long.valueOf(decoded.substring(PREFIX.length())));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректный курсор: " + value);
+        }
+    }
+
+    public static void exposeNext(List<RequestSummary> page, int size) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null || page.isEmpty() || page.size() < size) {
+            return;
+        }
+        RequestCursor next = new RequestCursor(page.get(page.size() - 1).id());
+        attributes.setAttribute(EventCursor.NEXT_CURSOR_ATTRIBUTE, next.encode(), RequestAttributes.SCOPE_REQUEST);
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
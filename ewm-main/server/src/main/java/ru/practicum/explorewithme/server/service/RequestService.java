@@ -1,9 +1,10 @@
 package ru.practicum.explorewithme.server.service;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.explorewithme.request.dto.EventRequestStatusUpdateRequest;
@@ -13,15 +14,24 @@ import ru.practicum.explorewithme.server.entity.Event;
 import ru.practicum.explorewithme.server.entity.EventState;
 import ru.practicum.explorewithme.server.entity.Request;
 import ru.practicum.explorewithme.server.entity.RequestStatus;
+import ru.practicum.explorewithme.server.entity.User;
 import ru.practicum.explorewithme.server.exception.ConflictException;
 import ru.practicum.explorewithme.server.exception.EntityNotFoundException;
 import ru.practicum.explorewithme.server.repository.EventRepository;
 import ru.practicum.explorewithme.server.repository.RequestRepository;
+import ru.practicum.explorewithme.server.repository.RequestSummary;
 import ru.practicum.explorewithme.server.mapper.RequestMapper;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,10 +42,14 @@ public class RequestService {
     private final RequestRepository requestRepository;
     private final EventRepository eventRepository;
     private final UserService userService;
+    private final EventDetailsCache eventDetailsCache;
+    private final PublicEventSearchCache publicEventSearchCache;
+    private final EventCatalog eventCatalog;
+    private final CompilationViewStore compilationViewStore;
     private final RequestMapper requestMapper;
 
-    @PersistenceContext
-    private EntityManager entityManager;
+    @Value("${ewm.requests.export-batch-size:1000}")
+    private int exportBatchSize;
 
     private static final String REQUEST_NOT_FOUND = "Request with id=%d was not found";
     private static final String NOT_YOUR_REQUEST = "This is not your request";
@@ -44,6 +58,7 @@ public class RequestService {
     private static final String ALREADY_REQUESTED = "Already requested participation in this event";
     private static final String CANNOT_CANCEL_CONFIRMED = "Only pending or rejected requests can be canceled";
     private static final String CANNOT_MODIFY_NON_PENDING = "Request must have status PENDING";
+    private static final String REQUEST_OF_OTHER_EVENT = "Request with id=%d does not belong to event with id=%d";
 
     @Transactional
     public ParticipationRequestDto create(Long userId, Long eventId) {
@@ -54,7 +69,7 @@ public class RequestService {
             throw new IllegalArgumentException("Параметр 'eventId' обязателен");
         }
 
-        userService.getById(userId);
+        User requester = userService.getById(userId);
 
         Event event = eventRepository.findByIdWithInitiator(eventId)
                 .orElseThrow(() -> new EntityNotFoundException("Event with id=" + eventId + " was not found"));
@@ -74,7 +89,7 @@ public class RequestService {
             throw new ConflictException(ALREADY_REQUESTED);
         }
 
-        Long confirmedCount = getConfirmedCount(eventId);
+        Long confirmedCount = event.getConfirmedRequests();
         if (event.getParticipantLimit() > 0 && confirmedCount >= event.getParticipantLimit()) {
             log.warn("Конфликт: достигнут лимит участников для события ID={}: текущий счёт={}, лимит={}",
                     eventId, confirmedCount, event.getParticipantLimit());
@@ -88,15 +103,26 @@ public class RequestService {
             status = event.getRequestModeration() ? RequestStatus.PENDING : RequestStatus.CONFIRMED;
         }
 
+        if (status == RequestStatus.CONFIRMED && eventRepository.admitConfirmedRequests(eventId, 1) == 0) {
+            log.warn("Конфликт: мест не осталось при подтверждении заявки на событие ID={}", eventId);
+            throw new ConflictException(LIMIT_REACHED);
+        }
+
         Request request = Request.builder()
                 .event(event)
-                .requester(userService.getById(userId))
+                .requester(requester)
                 .status(status)
                 .created(LocalDateTime.now())
                 .build();
 
         request = requestRepository.save(request);
-        entityManager.flush();
+        if (status == RequestStatus.CONFIRMED) {
+            long confirmed = eventRepository.findConfirmedRequestsById(eventId).orElseThrow();
+            eventDetailsCache.setConfirmedRequests(eventId, confirmed);
+            eventCatalog.setConfirmedRequests(eventId, confirmed);
+            compilationViewStore.addConfirmedRequests(eventId, 1);
+            evictIfFull(event, confirmed);
+        }
 
         log.info("Успешно создан запрос на участие: ID={}, статус={}", request.getId(), status.name());
         return requestMapper.toDto(request);
@@ -121,27 +147,38 @@ public class RequestService {
 
         request.setStatus(RequestStatus.CANCELED);
         requestRepository.save(request);
-        entityManager.flush();
 
         log.info("Успешно отменён запрос: ID={}", requestId);
         return requestMapper.toDto(request);
     }
 
-    public List<ParticipationRequestDto> getByUser(Long userId) {
+    @Transactional(readOnly = true)
+    public List<ParticipationRequestDto> getByUser(Long userId, RequestStatus status, Integer from, Integer size,
+                                                   String cursor) {
         log.info("Получение запросов пользователя ID={}", userId);
 
         userService.getById(userId);
-        List<Request> requests = requestRepository.findAllByRequesterId(userId);
+        List<ParticipationRequestDto> requests = page(from, size, cursor,
+                (afterId, pageable) -> findUserRequests(userId, status, afterId, pageable));
         log.info("Найдено {} запросов для пользователя ID={}", requests.size(), userId);
 
-        return requests.stream()
-                .map(requestMapper::toDto)
-                .collect(Collectors.toList());
+        return requests;
     }
 
-    public List<ParticipationRequestDto> getByEvent(Long userId, Long eventId) {
+    @Transactional(readOnly = true)
+    public List<ParticipationRequestDto> getByEvent(Long userId, Long eventId, RequestStatus status, Integer from,
+                                                    Integer size, String cursor) {
         log.info("Получение запросов для события: инициатор ID={}, событие ID={}", userId, eventId);
 
+        checkEventOwner(userId, eventId);
+        List<ParticipationRequestDto> requests = page(from, size, cursor,
+                (afterId, pageable) -> findEventRequests(eventId, status, afterId, pageable));
+        log.info("Найдено {} запросов для события ID={}", requests.size(), eventId);
+
+        return requests;
+    }
+
+    public void checkEventOwner(Long userId, Long eventId) {
         userService.getById(userId);
 
         Event event = eventRepository.findByIdWithInitiator(eventId)
@@ -151,11 +188,58 @@ public class RequestService {
             log.warn("Ошибка прав: пользователь ID={} пытается получить запросы чужого события ID={}", userId, eventId);
             throw new IllegalArgumentException(NOT_YOUR_EVENT);
         }
+    }
 
-        List<Request> requests = requestRepository.findAllByEventId(eventId);
-        log.info("Найдено {} запросов для события ID={}", requests.size(), eventId);
+    public long exportByEvent(Long eventId, RequestStatus status, Consumer<ParticipationRequestDto> action) {
+        long exported = 0;
+        long afterId = 0L;
+        List<RequestSummary> batch;
+        do {
+            batch = findEventRequests(eventId, status, afterId, PageRequest.of(0, exportBatchSize));
+            for (RequestSummary request : batch) {
+                action.accept(requestMapper.toDto(request));
+                afterId = request.id();
+            }
+            exported += batch.size();
+        } while (batch.size() == exportBatchSize);
+
+        log.info("Выгружено {} запросов для события ID={}", exported, eventId);
+        return exported;
+    }
+
+    private List<RequestSummary> findUserRequests(Long userId, RequestStatus status, Long afterId,
+                                                  Pageable pageable) {
+        return status == null
+                ? requestRepository.findUserRequests(userId, afterId, pageable)
+                : requestRepository.findUserRequestsByStatus(userId, status, afterId, pageable);
+    }
+
+    private List<RequestSummary> findEventRequests(Long eventId, RequestStatus status, Long afterId,
+                                                   Pageable pageable) {
+        return status == null
+                ? requestRepository.findEventRequests(eventId, afterId, pageable)
+                : requestRepository.findEventRequestsByStatus(eventId, status, afterId, pageable);
+    }
 
-        return requests.stream()
+    private List<ParticipationRequestDto> page(Integer from, Integer size, String cursor,
+                                               BiFunction<Long, Pageable, List<RequestSummary>> query) {
+        RequestCursor after = RequestCursor.decode(cursor);
+        List<RequestSummary> page;
+        if (from == null && size == null && after == null) {
+            page = query.apply(0L, Pageable.unpaged());
+        } else {
+            int safeFrom = from != null ? from : 0;
+            int safeSize = size != null ? size : 10;
+            if (after != null) {
+                page = query.apply(after.id(), PageRequest.of(0, safeSize));
+            } else {
+                List<RequestSummary> requests = query.apply(0L, PageRequest.of(0, safeFrom + safeSize));
+                page = safeFrom >= requests.size() ? List.of() : requests.subList(safeFrom, requests.size());
+            }
+            RequestCursor.exposeNext(page, safeSize);
+        }
+
+        return page.stream()
                 .map(requestMapper::toDto)
                 .collect(Collectors.toList());
     }
@@ -171,7 +255,7 @@ public class RequestService {
 
         userService.getById(userId);
 
-        Event event = eventRepository.findByIdWithInitiator(eventId)
+        Event event = eventRepository.findByIdWithInitiatorForUpdate(eventId)
                 .orElseThrow(() -> new EntityNotFoundException("Event with id=" + eventId + " was not found"));
 
         if (!event.getInitiator().getId().equals(userId)) {
@@ -179,12 +263,24 @@ public class RequestService {
             throw new IllegalArgumentException(NOT_YOUR_EVENT);
         }
 
-        List<Request> requests = update.getRequestIds().stream()
-                .map(id -> requestRepository.findById(id)
+        Set<Long> requestIds = new LinkedHashSet<>(update.getRequestIds());
+        Map<Long, Request> loaded = requestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(Request::getId, Function.identity()));
+        List<Request> requests = requestIds.stream()
+                .map(id -> Optional.ofNullable(loaded.get(id))
                         .orElseThrow(() -> new EntityNotFoundException(
                                 String.format(REQUEST_NOT_FOUND, id))))
                 .collect(Collectors.toList());
 
+        Optional<Request> foreign = requests.stream()
+                .filter(r -> !r.getEvent().getId().equals(eventId))
+                .findFirst();
+        if (foreign.isPresent()) {
+            log.warn("Конфликт: заявка ID={} относится к другому событию, а не к ID={}",
+                    foreign.get().getId(), eventId);
+            throw new ConflictException(String.format(REQUEST_OF_OTHER_EVENT, foreign.get().getId(), eventId));
+        }
+
         boolean hasNotPending = requests.stream()
                 .anyMatch(r -> r.getStatus() != RequestStatus.PENDING);
 
@@ -193,7 +289,7 @@ public class RequestService {
             throw new ConflictException(CANNOT_MODIFY_NON_PENDING);
         }
 
-        Long confirmedCount = getConfirmedCount(eventId);
+        Long confirmedCount = event.getConfirmedRequests();
 
         if ("CONFIRMED".equals(update.getStatus())
                 && event.getParticipantLimit() > 0
@@ -202,25 +298,30 @@ public class RequestService {
             throw new ConflictException(LIMIT_REACHED);
         }
 
-        List<Request> pendingRequests = requests.stream()
-                .filter(r -> r.getStatus() == RequestStatus.PENDING)
-                .collect(Collectors.toList());
-
         List<Request> confirmed = new ArrayList<>();
         List<Request> rejected = new ArrayList<>();
+        long available = event.getParticipantLimit() > 0
+                ? event.getParticipantLimit() - confirmedCount
+                : Long.MAX_VALUE;
 
-        for (Request r : pendingRequests) {
-            if ("CONFIRMED".equals(update.getStatus())) {
-                r.setStatus(RequestStatus.CONFIRMED);
+        for (Request r : requests) {
+            if ("CONFIRMED".equals(update.getStatus()) && confirmed.size() < available) {
                 confirmed.add(r);
             } else {
-                r.setStatus(RequestStatus.REJECTED);
                 rejected.add(r);
             }
         }
 
-        requestRepository.saveAll(pendingRequests);
-        entityManager.flush();
+        changeStatuses(confirmed, RequestStatus.CONFIRMED);
+        changeStatuses(rejected, RequestStatus.REJECTED);
+        if (!confirmed.isEmpty()) {
+            eventRepository.addConfirmedRequests(eventId, confirmed.size());
+            long confirmedTotal = confirmedCount + confirmed.size();
+            eventDetailsCache.setConfirmedRequests(eventId, confirmedTotal);
+            eventCatalog.setConfirmedRequests(eventId, confirmedTotal);
+            compilationViewStore.addConfirmedRequests(eventId, confirmed.size());
+            evictIfFull(event, confirmedTotal);
+        }
 
         List<ParticipationRequestDto> additionalRejected = new ArrayList<>();
         if ("CONFIRMED".equals(update.getStatus())
@@ -230,12 +331,10 @@ public class RequestService {
             List<Request> remainingPending = requestRepository
                     .findAllByEventIdAndStatus(eventId, RequestStatus.PENDING);
 
-            remainingPending.forEach(r -> r.setStatus(RequestStatus.REJECTED));
-            requestRepository.saveAll(remainingPending);
-            entityManager.flush();
+            requestRepository.updateStatusByEventId(eventId, RequestStatus.PENDING, RequestStatus.REJECTED);
 
             additionalRejected = remainingPending.stream()
-                    .map(requestMapper::toDto)
+                    .map(r -> requestMapper.toDto(r, RequestStatus.REJECTED))
                     .collect(Collectors.toList());
 
             log.info("Автоматически отклонено {} дополнительных запросов для события ID={}",
@@ -243,11 +342,11 @@ public class RequestService {
         }
 
         List<ParticipationRequestDto> confirmedDtos = confirmed.stream()
-                .map(requestMapper::toDto)
+                .map(r -> requestMapper.toDto(r, RequestStatus.CONFIRMED))
                 .collect(Collectors.toList());
 
         List<ParticipationRequestDto> rejectedDtos = rejected.stream()
-                .map(requestMapper::toDto)
+                .map(r -> requestMapper.toDto(r, RequestStatus.REJECTED))
                 .collect(Collectors.toList());
 
         rejectedDtos.addAll(additionalRejected);
@@ -261,7 +360,22 @@ public class RequestService {
                 .build();
     }
 
-    public Long getConfirmedCount(Long eventId) {
-        return requestRepository.countByEventIdAndStatus(eventId, RequestStatus.CONFIRMED);
+    private void changeStatuses(List<Request> requests, RequestStatus status) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = requests.stream().map(Request::getId).collect(Collectors.toSet());
+        if (requestRepository.updateStatusByIdIn(ids, RequestStatus.PENDING, status) != ids.size()) {
+            log.warn("Конфликт: статус части заявок изменился во время обработки: {}", ids);
+            throw new ConflictException(CANNOT_MODIFY_NON_PENDING);
+        }
+    }
+
+    // Счётчик подтверждённых заявок в кэшированной выдаче может отставать на TTL кэша;
+    // сбрасываем только выдачи onlyAvailable, из которых заполненное событие должно пропасть
+    private void evictIfFull(Event event, long confirmed) {
+        if (event.getParticipantLimit() > 0 && confirmed >= event.getParticipantLimit()) {
+            publicEventSearchCache.evictAvailable(event.getCategory().getId());
+        }
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package ru.practicum.explorewithme.server.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+@Slf4j
+public class SingleFlight<K, V> {
+    private static final Duration DEFAULT_WAIT_TIMEOUT = Duration.ofSeconds(5);
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+    private final long waitTimeoutNanos;
+
+    public SingleFlight() {
+        this(DEFAULT_WAIT_TIMEOUT);
+    }
+
+    public SingleFlight(Duration waitTimeout) {
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.increment();
+            return await(key, existing, loader);
+        }
+
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (Throwable e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            if (!call.isDone()) {
+                call.completeExceptionally(new IllegalStateException("Загрузка прервана: " + key));
+            }
+            inFlight.remove(key, call);
+        }
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    private V await(K key, CompletableFuture<V> call, Supplier<V> loader) {
+        try {
+            return call.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            log.warn("Ожидание загрузки {} превысило {} мс, загружаем самостоятельно", key,
+                    TimeUnit.NANOSECONDS.toMillis(waitTimeoutNanos));
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ожидание загрузки прервано: " + key, e);
+        }
+    }
+}
@@ -25,6 +25,7 @@ import java.util.stream.Collectors;
 public class UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final UserShortCache userShortCache;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -39,7 +40,6 @@ public class UserService {
         }
         User user = userMapper.toEntity(newUser);
         user = userRepository.save(user);
-        entityManager.flush();
         log.info("Пользователь создан с ID {}", user.getId());
         return userMapper.toDto(user);
     }
@@ -78,6 +78,7 @@ public class UserService {
         }
 
         userRepository.delete(user);
+        userShortCache.evict(userId);
         log.info("Пользователь ID {} удален", userId);
     }
 
@@ -0,0 +1,43 @@
+package ru.practicum.explorewithme.server.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.explorewithme.server.mapper.UserMapper;
+import ru.practicum.explorewithme.server.repository.UserRepository;
+import ru.practicum.explorewithme.user.dto.UserShortDto;
+
+@Component
+@RequiredArgsConstructor
+public class UserShortCache {
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ewm.cache.user-short.max-size:10000}")
+    private long maxSize;
+
+    private Cache<Long, UserShortDto> users;
+
+    @PostConstruct
+    public void init() {
+        users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "userShort");
+    }
+
+    public UserShortDto get(Long userId) {
+        return users.get(userId, id -> userRepository.findById(id).map(userMapper::toShortDto).orElse(null));
+    }
+
+    public void evict(Long userId) {
+        AfterCommit.run(() -> users.invalidate(userId));
+    }
+}
@@ -53,4 +53,4 @@ CREATE TABLE IF NOT EXISTS requests (
   event_id BIGINT REFERENCES events (id) ON DELETE CASCADE,
   requester_id BIGINT REFERENCES users (id) ON DELETE CASCADE,
   status VARCHAR(255) NOT NULL
-);
\ No newline at end of file
+);
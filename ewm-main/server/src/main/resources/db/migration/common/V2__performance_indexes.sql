@@ -0,0 +1,17 @@
+-- Публичная выдача событий по дате с курсором (event_date, id)
+CREATE INDEX IF NOT EXISTS events_state_event_date_idx ON events (state, event_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS events_event_date_idx ON events (event_date DESC, id DESC);
+
+-- Публичная выдача событий по популярности (sort=VIEWS)
+CREATE INDEX IF NOT EXISTS events_state_views_idx ON events (state, views DESC, id DESC);
+
+-- События инициатора и проверка категории перед удалением
+CREATE INDEX IF NOT EXISTS events_initiator_event_date_idx ON events (initiator_id, event_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS events_category_idx ON events (category_id);
+
+-- Заявки события по статусу и заявки пользователя
+CREATE INDEX IF NOT EXISTS requests_event_status_idx ON requests (event_id, status);
+CREATE INDEX IF NOT EXISTS requests_requester_event_idx ON requests (requester_id, event_id);
+
+-- Подборки, содержащие событие
+CREATE INDEX IF NOT EXISTS compilations_events_event_idx ON compilations_events (event_id);
@@ -0,0 +1,3 @@
+-- Постраничная выдача заявок события и пользователя с курсором по id
+CREATE INDEX IF NOT EXISTS requests_event_id_idx ON requests (event_id, id);
+CREATE INDEX IF NOT EXISTS requests_requester_id_idx ON requests (requester_id, id);
@@ -0,0 +1,4 @@
+-- Постраничная выдача заявок события с фильтром по статусу и курсором по id;
+-- индекс также обслуживает подсчёт заявок события по статусу вместо (event_id, status)
+CREATE INDEX IF NOT EXISTS requests_event_status_id_idx ON requests (event_id, status, id);
+DROP INDEX IF EXISTS requests_event_status_idx;
@@ -0,0 +1,4 @@
+-- Полнотекстовый поиск по событиям
+CREATE INDEX IF NOT EXISTS events_search_idx ON events USING GIN (
+  to_tsvector('simple', coalesce(title, '') || ' ' || coalesce(annotation, '') || ' ' || coalesce(description, ''))
+);
@@ -0,0 +1,7 @@
+-- Продолжаем нумерацию после идентификаторов, уже выданных IDENTITY-столбцами.
+-- Оптимизатор pooled считает полученное значение верхней границей блока, поэтому сдвиг равен размеру блока
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 50, false);
+SELECT setval('categories_seq', COALESCE((SELECT MAX(id) FROM categories), 0) + 50, false);
+SELECT setval('events_seq', COALESCE((SELECT MAX(id) FROM events), 0) + 50, false);
+SELECT setval('compilations_seq', COALESCE((SELECT MAX(id) FROM compilations), 0) + 50, false);
+SELECT setval('requests_seq', COALESCE((SELECT MAX(id) FROM requests), 0) + 50, false);
@@ -0,0 +1,47 @@
+package ru.practicum.explorewithme.server.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.explorewithme.server.entity.Category;
+import ru.practicum.explorewithme.server.repository.CategoryRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheMetricsTest {
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void regionHitsAreExposedWithoutHibernateStatistics() {
+        entityManagerFactory.getCache().evictAll();
+        Long id = categoryRepository.save(Category.builder().name("metrics").build()).getId();
+        double before = hits();
+
+        categoryRepository.findById(id).orElseThrow();
+        categoryRepository.findById(id).orElseThrow();
+
+        assertTrue(hits() > before, "Попадания в регион category не учтены");
+        categoryRepository.deleteById(id);
+    }
+
+    private double hits() {
+        FunctionCounter counter = meterRegistry.find("cache.gets")
+                .tags("cache", "category", "layer", "hibernate", "result", "hit")
+                .functionCounter();
+        assertNotNull(counter, "Метрика региона category не зарегистрирована");
+        return counter.count();
+    }
+}
@@ -0,0 +1,223 @@
+package ru.practicum.explorewithme.server.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CollectionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.explorewithme.server.entity.Category;
+import ru.practicum.explorewithme.server.entity.Compilation;
+import ru.practicum.explorewithme.server.entity.Event;
+import ru.practicum.explorewithme.server.entity.EventState;
+import ru.practicum.explorewithme.server.entity.User;
+import ru.practicum.explorewithme.server.repository.CategoryRepository;
+import ru.practicum.explorewithme.server.repository.CompilationRepository;
+import ru.practicum.explorewithme.server.repository.EventRepository;
+import ru.practicum.explorewithme.server.repository.RequestRepository;
+import ru.practicum.explorewithme.server.repository.UserRepository;
+import ru.practicum.explorewithme.server.service.CompilationViewStore;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "ewm.catalog.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EntityLookupCountTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private CompilationRepository compilationRepository;
+
+    @Autowired
+    private CompilationViewStore compilationViewStore;
+
+    private Statistics statistics;
+    private User initiator;
+    private User participant;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        compilationRepository.deleteAll();
+        requestRepository.deleteAll();
+        eventRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+        initiator = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        participant = userRepository.save(User.builder().name("guest").email("guest@mail.ru").build());
+        category = categoryRepository.save(Category.builder().name("cat1").build());
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void createRequest_loadsEachEntityOnce() throws Exception {
+        Event event = saveEvent(EventState.PUBLISHED);
+        statistics.clear();
+
+        mockMvc.perform(post("/users/{userId}/requests", participant.getId())
+                        .param("eventId", event.getId().toString()))
+                .andExpect(status().isCreated());
+
+        assertEquals(1, loads(Event.class));
+        assertEquals(2, loads(User.class));
+    }
+
+    @Test
+    void updateUserEvent_loadsEachEntityOnce() throws Exception {
+        Event event = saveEvent(EventState.PENDING);
+        statistics.clear();
+
+        mockMvc.perform(patch("/users/{userId}/events/{eventId}", initiator.getId(), event.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Updated title\",\"category\":" + category.getId() + "}"))
+                .andExpect(status().isOk());
+
+        assertEquals(1, loads(Event.class));
+        assertEquals(1, loads(User.class));
+        assertEquals(1, loads(Category.class));
+    }
+
+    @Test
+    void getEventRequests_loadsEachEntityOnce() throws Exception {
+        Event event = saveEvent(EventState.PUBLISHED);
+        statistics.clear();
+
+        mockMvc.perform(get("/users/{userId}/events/{eventId}/requests", initiator.getId(), event.getId()))
+                .andExpect(status().isOk());
+
+        assertEquals(1, loads(Event.class));
+        assertEquals(1, loads(User.class));
+    }
+
+    @Test
+    void updateCategory_loadsCategoryOnce() throws Exception {
+        statistics.clear();
+
+        mockMvc.perform(patch("/admin/categories/{catId}", category.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"renamed\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("renamed"));
+
+        assertEquals(1, loads(Category.class));
+    }
+
+    @Test
+    void renderEvent_servesCategoryAndInitiatorFromMemory() throws Exception {
+        Event event = saveEvent(EventState.PENDING);
+        mockMvc.perform(get("/users/{userId}/events/{eventId}", initiator.getId(), event.getId()))
+                .andExpect(status().isOk());
+        statistics.clear();
+
+        mockMvc.perform(get("/users/{userId}/events/{eventId}", initiator.getId(), event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.category.name").value("cat1"))
+                .andExpect(jsonPath("$.initiator.name").value("owner"));
+
+        assertEquals(1, loads(Event.class));
+        assertEquals(0, loads(User.class));
+        assertEquals(0, loads(Category.class));
+    }
+
+    @Test
+    void getPinnedCompilations_servedFromViewStore() throws Exception {
+        Event first = saveEvent(EventState.PUBLISHED);
+        Event second = saveEvent(EventState.PUBLISHED);
+        compilationRepository.save(Compilation.builder().title("Weekend").pinned(true)
+                .events(Set.of(first, second)).build());
+        compilationViewStore.refresh();
+        statistics.clear();
+
+        mockMvc.perform(get("/compilations").param("pinned", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].events.length()").value(2))
+                .andExpect(jsonPath("$[0].events[0].category.name").value("cat1"));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateCompilation_writesOnlyChangedJoinRows() throws Exception {
+        Event first = saveEvent(EventState.PUBLISHED);
+        Event second = saveEvent(EventState.PUBLISHED);
+        Event third = saveEvent(EventState.PUBLISHED);
+        Compilation compilation = compilationRepository.save(Compilation.builder().title("Weekend").pinned(false)
+                .events(Set.of(first, second)).build());
+        statistics.clear();
+
+        mockMvc.perform(patch("/admin/compilations/{compId}", compilation.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"events\":[" + second.getId() + "," + third.getId() + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events.length()").value(2));
+
+        CollectionStatistics events = statistics.getCollectionStatistics(Compilation.class.getName() + ".events");
+        assertEquals(0, events.getRecreateCount());
+        assertEquals(1, events.getUpdateCount());
+        assertEquals(3, loads(Event.class));
+    }
+
+    @Test
+    void updateCompilation_reportsAllMissingEvents() throws Exception {
+        Event event = saveEvent(EventState.PUBLISHED);
+        Compilation compilation = compilationRepository.save(Compilation.builder().title("Weekend").pinned(false)
+                .events(Set.of(event)).build());
+
+        mockMvc.perform(patch("/admin/compilations/{compId}", compilation.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"events\":[" + event.getId() + ",-2,-1]}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("События с id=[-2, -1] не найдены"));
+    }
+
+    private long loads(Class<?> entity) {
+        return statistics.getEntityStatistics(entity.getName()).getLoadCount();
+    }
+
+    private Event saveEvent(EventState state) {
+        return eventRepository.save(Event.builder()
+                .title("Jazz night")
+                .annotation("Annotation of the jazz night")
+                .description("Description of the jazz night")
+                .category(category)
+                .initiator(initiator)
+                .state(state)
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .build());
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.explorewithme.server.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.explorewithme.client.StatClient;
+import ru.practicum.explorewithme.server.entity.Category;
+import ru.practicum.explorewithme.server.entity.Event;
+import ru.practicum.explorewithme.server.entity.EventState;
+import ru.practicum.explorewithme.server.entity.User;
+import ru.practicum.explorewithme.server.repository.CategoryRepository;
+import ru.practicum.explorewithme.server.repository.CompilationRepository;
+import ru.practicum.explorewithme.server.repository.EventRepository;
+import ru.practicum.explorewithme.server.repository.RequestRepository;
+import ru.practicum.explorewithme.server.repository.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "stats-server.url=http://localhost:1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StatsDegradationTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private CompilationRepository compilationRepository;
+
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        compilationRepository.deleteAll();
+        requestRepository.deleteAll();
+        eventRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+        User initiator = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        Category category = categoryRepository.save(Category.builder().name("cat1").build());
+        event = eventRepository.save(Event.builder()
+                .title("Jazz night")
+                .annotation("Annotation of the jazz night")
+                .description("Description of the jazz night")
+                .category(category)
+                .initiator(initiator)
+                .state(EventState.PUBLISHED)
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .build());
+    }
+
+    @Test
+    void getPublicEvent_servedWithDegradedHeaderWhenStatsServerIsDown() throws Exception {
+        mockMvc.perform(get("/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(StatClient.DEGRADED_HEADER, "true"))
+                .andExpect(jsonPath("$.id").value(event.getId()))
+                .andExpect(jsonPath("$.views").value(0));
+    }
+
+    @Test
+    void getCategories_servedWithoutDegradedHeader() throws Exception {
+        mockMvc.perform(get("/categories"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(StatClient.DEGRADED_HEADER));
+    }
+}
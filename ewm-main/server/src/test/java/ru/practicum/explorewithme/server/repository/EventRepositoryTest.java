@@ -0,0 +1,163 @@
+package ru.practicum.explorewithme.server.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.explorewithme.server.entity.Category;
+import ru.practicum.explorewithme.server.entity.Event;
+import ru.practicum.explorewithme.server.entity.EventState;
+import ru.practicum.explorewithme.server.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class EventRepositoryTest {
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EventRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final LocalDateTime now = LocalDateTime.of(2026, 1, 1, 12, 0);
+    private final PageRequest page = PageRequest.of(0, 10, Sort.by("eventDate").descending());
+
+    private User user;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(User.builder().name("u1").email("u1@mail.ru").build());
+        category = entityManager.persist(Category.builder().name("cat1").build());
+    }
+
+    @Test
+    void findPublicEventsTreatsLikeWildcardsInTextLiterally() {
+        Event discount = persist("Sale 50% off", "Records", EventState.PUBLISHED, now.plusDays(1));
+        persist("Sale 500 records", "Records", EventState.PUBLISHED, now.plusDays(2));
+        Event underscored = persist("Jam a_b", "Session", EventState.PUBLISHED, now.plusDays(3));
+        persist("Jam abb", "Session", EventState.PUBLISHED, now.plusDays(4));
+
+        assertEquals(List.of(discount.getId()), repository.findEventSummaries(published().text("50%").build(), page)
+                .stream().map(EventSummary::id).toList());
+        assertEquals(List.of(underscored.getId()), repository.findEventSummaries(published().text("a_b").build(), page)
+                .stream().map(EventSummary::id).toList());
+    }
+
+    @Test
+    void findPublicEventsWithoutTextOrRangeEndReturnsAllUpcomingPublished() {
+        Event first = persist("Jazz night", "Music in the park", EventState.PUBLISHED, now.plusDays(1));
+        Event second = persist("Rock night", "Loud music", EventState.PUBLISHED, now.plusYears(5));
+        persist("Draft", "Not published", EventState.PENDING, now.plusDays(3));
+
+        List<EventSummary> events = repository.findEventSummaries(published()
+                .categories(List.of(category.getId()))
+                .build(), page);
+
+        assertEquals(List.of(second.getId(), first.getId()), events.stream().map(EventSummary::id).toList());
+    }
+
+    @Test
+    void findPublicEventsPagesByViews() {
+        Event popular = persist("Jazz night", "Music in the park", EventState.PUBLISHED, now.plusDays(1));
+        Event tied = persist("Rock night", "Loud music", EventState.PUBLISHED, now.plusDays(2));
+        Event quiet = persist("Poetry evening", "Quiet reading", EventState.PUBLISHED, now.plusDays(3));
+        setViews(popular, 50L);
+        setViews(tied, 10L);
+        setViews(quiet, 10L);
+        Sort byViews = Sort.by(Sort.Order.desc("views"), Sort.Order.desc("id"));
+
+        List<EventSummary> first = repository.findEventSummaries(published().build(),
+                PageRequest.of(0, 2, byViews));
+        List<EventSummary> second = repository.findEventSummaries(published().build(),
+                PageRequest.of(1, 2, byViews));
+
+        assertEquals(List.of(popular.getId(), quiet.getId()), first.stream().map(EventSummary::id).toList());
+        assertEquals(List.of(tied.getId()), second.stream().map(EventSummary::id).toList());
+    }
+
+    @Test
+    void findPublicEventsSeeksPastCursor() {
+        Event first = persist("Jazz night", "Music in the park", EventState.PUBLISHED, now.plusDays(3));
+        Event second = persist("Rock night", "Loud music", EventState.PUBLISHED, now.plusDays(2));
+        Event sameDate = persist("Poetry evening", "Quiet reading", EventState.PUBLISHED, now.plusDays(2));
+        Event last = persist("Opera", "Classic music", EventState.PUBLISHED, now.plusDays(1));
+        PageRequest firstPage = PageRequest.of(0, 2, Sort.by(Sort.Order.desc("eventDate"), Sort.Order.desc("id")));
+
+        List<EventSummary> page1 = repository.findEventSummaries(published().build(), firstPage);
+        EventSummary tail = page1.get(page1.size() - 1);
+        List<EventSummary> page2 = repository.findEventSummaries(published()
+                .cursorDate(tail.eventDate())
+                .cursorId(tail.id())
+                .build(), firstPage);
+
+        assertEquals(List.of(first.getId(), sameDate.getId()), page1.stream().map(EventSummary::id).toList());
+        assertEquals(List.of(second.getId(), last.getId()), page2.stream().map(EventSummary::id).toList());
+    }
+
+    @Test
+    void findPublicEventsLoadsPageInOneStatement() {
+        for (int i = 0; i < 5; i++) {
+            User initiator = entityManager.persist(User.builder().name("i" + i).email("i" + i + "@mail.ru").build());
+            Category own = entityManager.persist(Category.builder().name("own" + i).build());
+            persist("Event " + i, "Annotation " + i, EventState.PUBLISHED, now.plusDays(i + 1), own, initiator);
+        }
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<EventSummary> events = repository.findEventSummaries(published().build(), page);
+        assertEquals(List.of("own4", "own3", "own2", "own1", "own0"),
+                events.stream().map(EventSummary::categoryName).toList());
+        assertEquals(List.of("i4", "i3", "i2", "i1", "i0"),
+                events.stream().map(EventSummary::initiatorName).toList());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private EventSearchCriteria.EventSearchCriteriaBuilder published() {
+        return EventSearchCriteria.builder()
+                .states(List.of(EventState.PUBLISHED))
+                .rangeStart(now);
+    }
+
+    private void setViews(Event event, long views) {
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE events SET views = ?1 WHERE id = ?2")
+                .setParameter(1, views)
+                .setParameter(2, event.getId())
+                .executeUpdate();
+        entityManager.clear();
+    }
+
+    private Event persist(String title, String annotation, EventState state, LocalDateTime eventDate) {
+        return persist(title, annotation, state, eventDate, category, user);
+    }
+
+    private Event persist(String title, String annotation, EventState state, LocalDateTime eventDate,
+                          Category category, User initiator) {
+        return entityManager.persistAndFlush(Event.builder()
+                .title(title)
+                .annotation(annotation)
+                .description(annotation)
+                .category(category)
+                .initiator(initiator)
+                .state(state)
+                .eventDate(eventDate)
+                .build());
+    }
+}
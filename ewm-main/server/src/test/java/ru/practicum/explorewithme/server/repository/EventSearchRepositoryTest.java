@@ -0,0 +1,131 @@
+package ru.practicum.explorewithme.server.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.explorewithme.server.entity.Category;
+import ru.practicum.explorewithme.server.entity.Event;
+import ru.practicum.explorewithme.server.entity.EventState;
+import ru.practicum.explorewithme.server.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.explorewithme.server.repository.EventSearchRepositoryTest$RecordingInspector")
+@ActiveProfiles("test")
+class EventSearchRepositoryTest {
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EventRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime now = LocalDateTime.of(2026, 1, 1, 12, 0);
+    private final PageRequest page = PageRequest.of(0, 10,
+            Sort.by(Sort.Order.desc("eventDate"), Sort.Order.desc("id")));
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = List.of(
+                entityManager.persist(User.builder().name("u1").email("u1@mail.ru").build()),
+                entityManager.persist(User.builder().name("u2").email("u2@mail.ru").build()));
+        List<Category> categories = List.of(
+                entityManager.persist(Category.builder().name("cat1").build()),
+                entityManager.persist(Category.builder().name("cat2").build()));
+        EventState[] states = EventState.values();
+        for (int i = 0; i < 300; i++) {
+            entityManager.persist(Event.builder()
+                    .title("Event " + i)
+                    .annotation("Annotation " + i)
+                    .description("Description " + i)
+                    .category(categories.get(i % 2))
+                    .initiator(users.get(i % 2))
+                    .state(states[i % states.length])
+                    .eventDate(now.plusHours(i))
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        user = users.get(0);
+        RecordingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void adminSearchByStateSeeksIndex() {
+        List<Event> events = repository.findEvents(EventSearchCriteria.builder()
+                .states(List.of(EventState.PUBLISHED))
+                .build(), page);
+
+        String sql = lastStatement();
+        assertEquals(10, events.size());
+        assertFalse(sql.contains(" is null"), sql);
+        assertFalse(sql.contains("initiator_id="), sql);
+        assertFalse(sql.contains("category_id in"), sql);
+        assertIndexLookup(sql, "STATE = ?");
+    }
+
+    @Test
+    void adminSearchByInitiatorSeeksIndex() {
+        List<Event> events = repository.findEvents(EventSearchCriteria.builder()
+                .users(List.of(user.getId()))
+                .build(), page);
+
+        String sql = lastStatement();
+        assertEquals(10, events.size());
+        assertFalse(sql.contains(" is null"), sql);
+        assertFalse(sql.contains("state="), sql);
+        assertIndexLookup(sql, "INITIATOR_ID = ?");
+    }
+
+    @Test
+    void publicSearchRendersOnlySuppliedFilters() {
+        List<EventSummary> events = repository.findEventSummaries(EventSearchCriteria.builder()
+                .states(List.of(EventState.PUBLISHED))
+                .rangeStart(now)
+                .paid(false)
+                .build(), page);
+
+        String where = lastStatement().substring(lastStatement().indexOf(" where "));
+        assertEquals(10, events.size());
+        assertFalse(where.contains(" is null"), where);
+        assertFalse(where.contains("category_id"), where);
+        assertFalse(where.contains("participant_limit"), where);
+        assertTrue(where.contains("paid=?"), where);
+    }
+
+    private String lastStatement() {
+        return RecordingInspector.STATEMENTS.get(RecordingInspector.STATEMENTS.size() - 1);
+    }
+
+    private void assertIndexLookup(String sql, String condition) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+        assertFalse(plan.contains("EVENTS.tableScan"), plan);
+        assertTrue(plan.contains(condition), plan);
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
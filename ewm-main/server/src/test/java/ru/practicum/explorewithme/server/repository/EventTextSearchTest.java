@@ -0,0 +1,146 @@
+package ru.practicum.explorewithme.server.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.explorewithme.server.entity.Category;
+import ru.practicum.explorewithme.server.entity.Event;
+import ru.practicum.explorewithme.server.entity.EventState;
+import ru.practicum.explorewithme.server.entity.User;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class EventTextSearchTest {
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EventRepository repository;
+
+    private final LocalDateTime now = LocalDateTime.of(2026, 1, 1, 12, 0);
+    private final PageRequest page = PageRequest.of(0, 10, Sort.by("eventDate").descending());
+
+    private User user;
+    private Category category;
+
+    @TestConfiguration
+    static class PostgresConfig {
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws IOException {
+            return EmbeddedPostgres.start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres postgres) {
+            return postgres.getPostgresDatabase();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(User.builder().name("u1").email("u1@mail.ru").build());
+        category = entityManager.persist(Category.builder().name("cat1").build());
+    }
+
+    @Test
+    void findPublicEventsAppliesFiltersToTextMatches() {
+        Event published = persist("Rock concert", "Big outdoor concert", EventState.PUBLISHED, now.plusDays(1));
+        persist("Rock concert draft", "Concert that is not published yet", EventState.PENDING, now.plusDays(1));
+        persist("Old rock concert", "Concert that already happened", EventState.PUBLISHED, now.minusDays(1));
+
+        List<EventSummary> events = repository.findEventSummaries(published()
+                .text("concert")
+                .rangeEnd(now.plusYears(1))
+                .build(), page);
+
+        assertEquals(List.of(published.getId()), ids(events));
+    }
+
+    @Test
+    void findPublicEventsMatchesWholeWordsOnly() {
+        Event concert = persist("Rock concert", "Big outdoor concert", EventState.PUBLISHED, now.plusDays(1));
+        persist("Concertina evening", "Folk music", EventState.PUBLISHED, now.plusDays(2));
+
+        assertEquals(List.of(), ids(repository.findEventSummaries(published().text("conc").build(), page)));
+        assertEquals(List.of(concert.getId()),
+                ids(repository.findEventSummaries(published().text("Concert").build(), page)));
+    }
+
+    @Test
+    void findPublicEventsRequiresEveryWord() {
+        Event both = persist("Jazz concert", "Music in the park", EventState.PUBLISHED, now.plusDays(1));
+        persist("Rock concert", "Loud music", EventState.PUBLISHED, now.plusDays(2));
+
+        assertEquals(List.of(both.getId()),
+                ids(repository.findEventSummaries(published().text("jazz concert").build(), page)));
+    }
+
+    @Test
+    void findPublicEventsRanksTitleMatchesFirst() {
+        Event inAnnotation = persist("Evening", "Jazz in the park", EventState.PUBLISHED, now.plusDays(2));
+        Event inTitle = persist("Jazz night", "Music in the park", EventState.PUBLISHED, now.plusDays(1));
+        persist("Rock night", "Loud music", EventState.PUBLISHED, now.plusDays(3));
+
+        List<EventSummary> events = repository.findEventSummaries(published()
+                .text("JAZZ")
+                .rankByText(true)
+                .build(), page);
+
+        assertEquals(List.of(inTitle.getId(), inAnnotation.getId()), ids(events));
+    }
+
+    @Test
+    void findPublicEventsBreaksRankTiesById() {
+        Event first = persist("Jazz night", "Music in the park", EventState.PUBLISHED, now.plusDays(1));
+        Event second = persist("Jazz night", "Music in the park", EventState.PUBLISHED, now.plusDays(2));
+        Event third = persist("Jazz night", "Music in the park", EventState.PUBLISHED, now.plusDays(3));
+
+        List<Long> pages = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            repository.findEventSummaries(published().text("jazz").rankByText(true).build(),
+                    PageRequest.of(i, 1)).forEach(event -> pages.add(event.id()));
+        }
+
+        assertEquals(List.of(third.getId(), second.getId(), first.getId()), pages);
+    }
+
+    private List<Long> ids(List<EventSummary> events) {
+        return events.stream().map(EventSummary::id).toList();
+    }
+
+    private EventSearchCriteria.EventSearchCriteriaBuilder published() {
+        return EventSearchCriteria.builder()
+                .states(List.of(EventState.PUBLISHED))
+                .rangeStart(now);
+    }
+
+    private Event persist(String title, String annotation, EventState state, LocalDateTime eventDate) {
+        return entityManager.persistAndFlush(Event.builder()
+                .title(title)
+                .annotation(annotation)
+                .description(annotation)
+                .category(category)
+                .initiator(user)
+                .state(state)
+                .eventDate(eventDate)
+                .build());
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.explorewithme.server.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryPlanTest {
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/postgresql")
+                .load()
+                .migrate();
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("INSERT INTO users (name, email) "
+                + "SELECT 'user' || i, 'user' || i || '@mail.ru' FROM generate_series(1, 1000) i");
+        jdbc.execute("INSERT INTO categories (name) SELECT 'category' || i FROM generate_series(1, 20) i");
+        jdbc.execute("INSERT INTO events (annotation, category_id, created_on, description, event_date, paid, "
+                + "participant_limit, state, title, views, initiator_id) "
+                + "SELECT 'annotation' || i, 1 + i % 19, now(), 'description' || i, "
+                + "now() + (i % 5000 - 1000) * interval '1 hour', i % 2 = 0, i % 50, "
+                + "(ARRAY['PUBLISHED', 'PENDING', 'CANCELED'])[1 + i % 3], 'title' || i, i % 997, 1 + i % 1000 "
+                + "FROM generate_series(1, 50000) i");
+        jdbc.execute("INSERT INTO requests (created, event_id, requester_id, status) "
+                + "SELECT now(), 1 + i % 50000, 1 + i % 1000, "
+                + "(ARRAY['PENDING', 'CONFIRMED', 'REJECTED', 'CANCELED'])[1 + i % 4] "
+                + "FROM generate_series(1, 200000) i");
+        jdbc.execute("INSERT INTO requests (created, event_id, requester_id, status) "
+                + "SELECT now(), 4242, 1 + i % 1000, "
+                + "(ARRAY['PENDING', 'CONFIRMED', 'REJECTED', 'CANCELED'])[1 + i % 4] "
+                + "FROM generate_series(1, 50000) i");
+        jdbc.execute("INSERT INTO compilations (pinned, title) "
+                + "SELECT i % 10 = 0, 'compilation' || i FROM generate_series(1, 2000) i");
+        jdbc.execute("INSERT INTO compilations_events (compilation_id, event_id) "
+                + "SELECT c, 1 + (c * 10 + e) % 50000 FROM generate_series(1, 2000) c, generate_series(1, 10) e");
+        jdbc.execute("ANALYZE");
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        postgres.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SELECT e.id FROM events e WHERE e.state = 'PUBLISHED' AND e.event_date >= now() "
+                    + "ORDER BY e.event_date DESC, e.id DESC LIMIT 10",
+            "SELECT e.id FROM events e WHERE e.state = 'PUBLISHED' AND e.event_date >= now() "
+                    + "AND (e.event_date < now() + interval '30 days' "
+                    + "OR e.event_date = now() + interval '30 days' AND e.id < 40000) "
+                    + "ORDER BY e.event_date DESC, e.id DESC LIMIT 10",
+            "SELECT e.id FROM events e WHERE e.state = 'PUBLISHED' ORDER BY e.views DESC, e.id DESC LIMIT 10",
+            "SELECT e.id FROM events e ORDER BY e.event_date DESC, e.id DESC LIMIT 10",
+            "SELECT e.id FROM events e WHERE e.event_date >= now() "
+                    + "ORDER BY e.event_date DESC, e.id DESC LIMIT 10",
+            "SELECT e.id FROM events e WHERE e.initiator_id = 42 ORDER BY e.event_date DESC, e.id DESC LIMIT 10",
+            "SELECT e.id FROM events e WHERE e.category_id = 20 FETCH FIRST 1 ROWS ONLY",
+            "SELECT e.id FROM events e WHERE to_tsvector('simple', coalesce(e.title, '') || ' ' "
+                    + "|| coalesce(e.annotation, '') || ' ' || coalesce(e.description, '')) "
+                    + "@@ plainto_tsquery('simple', 'title4242')",
+            "SELECT count(r.id) FROM requests r WHERE r.event_id = 4242 AND r.status = 'CONFIRMED'",
+            "SELECT r.id FROM requests r WHERE r.requester_id = 42",
+            "SELECT r.id FROM requests r WHERE r.requester_id = 42 AND r.event_id IN (42, 1042, 2042)",
+            "SELECT r.id FROM requests r WHERE r.event_id = 4242 AND r.id > 1000 ORDER BY r.id LIMIT 10",
+            "SELECT r.id FROM requests r WHERE r.event_id = 4242 AND r.status = 'PENDING' AND r.id > 1000 "
+                    + "ORDER BY r.id LIMIT 10",
+            "SELECT r.id FROM requests r WHERE r.requester_id = 42 AND r.id > 1000 ORDER BY r.id LIMIT 10",
+            "SELECT r.id FROM requests r WHERE r.requester_id = 42 AND r.status = 'PENDING' AND r.id > 1000 "
+                    + "ORDER BY r.id LIMIT 10",
+            "SELECT ce.compilation_id FROM compilations_events ce WHERE ce.event_id = 4242"
+    })
+    void keyQueriesUseIndexes(String sql) {
+        String plan = String.join("\n", explain(sql));
+
+        assertFalse(plan.contains("Seq Scan"), () -> "Полный просмотр таблицы в плане запроса:\n" + sql + "\n" + plan);
+        assertFalse(plan.contains("Sort"), () -> "Сортировка в плане запроса:\n" + sql + "\n" + plan);
+    }
+
+    private static List<String> explain(String sql) {
+        return jdbc.queryForList("EXPLAIN " + sql, String.class);
+    }
+}
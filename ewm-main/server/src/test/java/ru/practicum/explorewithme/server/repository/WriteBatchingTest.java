@@ -0,0 +1,125 @@
+package ru.practicum.explorewithme.server.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.explorewithme.server.entity.Category;
+import ru.practicum.explorewithme.server.entity.Compilation;
+import ru.practicum.explorewithme.server.entity.Event;
+import ru.practicum.explorewithme.server.entity.EventState;
+import ru.practicum.explorewithme.server.entity.Request;
+import ru.practicum.explorewithme.server.entity.RequestStatus;
+import ru.practicum.explorewithme.server.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class WriteBatchingTest {
+    private static final int ROWS = 100;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User initiator;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        initiator = entityManager.persist(User.builder().name("owner").email("owner@mail.ru").build());
+        category = entityManager.persist(Category.builder().name("cat1").build());
+        entityManager.flush();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void insertUsers_batched() {
+        for (int i = 0; i < ROWS; i++) {
+            entityManager.persist(User.builder().name("u" + i).email("u" + i + "@mail.ru").build());
+        }
+        entityManager.flush();
+
+        assertBatched();
+    }
+
+    @Test
+    void insertEvents_batched() {
+        for (int i = 0; i < ROWS; i++) {
+            entityManager.persist(event(i));
+        }
+        entityManager.flush();
+
+        assertBatched();
+    }
+
+    @Test
+    void insertRequests_batched() {
+        Event event = entityManager.persist(event(0));
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            users.add(entityManager.persist(User.builder().name("u" + i).email("u" + i + "@mail.ru").build()));
+        }
+        entityManager.flush();
+        statistics.clear();
+
+        for (User user : users) {
+            entityManager.persist(Request.builder().event(event).requester(user).status(RequestStatus.PENDING)
+                    .created(LocalDateTime.now()).build());
+        }
+        entityManager.flush();
+
+        assertBatched();
+    }
+
+    @Test
+    void editCompilation_batched() {
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 2 * ROWS; i++) {
+            events.add(entityManager.persist(event(i)));
+        }
+        Compilation compilation = entityManager.persist(Compilation.builder().title("Weekend").pinned(false)
+                .events(new HashSet<>(events.subList(0, ROWS))).build());
+        entityManager.flush();
+        statistics.clear();
+
+        compilation.getEvents().removeAll(events.subList(0, ROWS / 2));
+        compilation.getEvents().addAll(events.subList(ROWS, ROWS + ROWS / 2));
+        entityManager.flush();
+
+        assertBatched();
+    }
+
+    private void assertBatched() {
+        long prepared = statistics.getPrepareStatementCount();
+        assertTrue(prepared <= 5, "Подготовлено запросов на " + ROWS + " строк: " + prepared);
+    }
+
+    private Event event(int i) {
+        return Event.builder()
+                .title("Event " + i)
+                .annotation("Annotation " + i)
+                .description("Description " + i)
+                .category(category)
+                .initiator(initiator)
+                .state(EventState.PUBLISHED)
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .createdOn(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.explorewithme.server.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.explorewithme.server.entity.Category;
+import ru.practicum.explorewithme.server.mapper.CategoryMapper;
+import ru.practicum.explorewithme.server.repository.CategoryRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryCacheTest {
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private CategoryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CategoryCache(categoryRepository, new CategoryMapper());
+    }
+
+    @Test
+    void get_loadsAllCategoriesOnce() {
+        when(categoryRepository.findAll()).thenReturn(List.of(category(1L, "cat1"), category(2L, "cat2")));
+
+        assertEquals("cat1", cache.get(1L).orElseThrow().getName());
+        assertEquals("cat2", cache.get(2L).orElseThrow().getName());
+
+        verify(categoryRepository, times(1)).findAll();
+        verify(categoryRepository, never()).findById(any());
+    }
+
+    @Test
+    void get_fallsBackToRepositoryForUnknownId() {
+        when(categoryRepository.findAll()).thenReturn(List.of());
+        when(categoryRepository.findById(3L)).thenReturn(Optional.of(category(3L, "cat3")));
+        when(categoryRepository.findById(4L)).thenReturn(Optional.empty());
+
+        assertEquals("cat3", cache.get(3L).orElseThrow().getName());
+        assertEquals("cat3", cache.get(3L).orElseThrow().getName());
+        assertTrue(cache.get(4L).isEmpty());
+
+        verify(categoryRepository, times(1)).findById(3L);
+    }
+
+    @Test
+    void putAndRemove_replaceSnapshot() {
+        when(categoryRepository.findAll()).thenReturn(List.of(category(1L, "cat1")));
+        cache.get(1L);
+
+        cache.put(category(1L, "renamed"));
+        cache.put(category(2L, "cat2"));
+        cache.remove(1L);
+
+        assertEquals("cat2", cache.get(2L).orElseThrow().getName());
+        assertTrue(cache.get(1L).isEmpty());
+    }
+
+    private Category category(Long id, String name) {
+        return Category.builder().id(id).name(name).build();
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.explorewithme.server.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.explorewithme.category.dto.CategoryDto;
+import ru.practicum.explorewithme.compilation.dto.CompilationDto;
+import ru.practicum.explorewithme.event.dto.EventShortDto;
+import ru.practicum.explorewithme.server.entity.Compilation;
+import ru.practicum.explorewithme.server.mapper.CategoryMapper;
+import ru.practicum.explorewithme.server.mapper.CompilationMapper;
+import ru.practicum.explorewithme.server.mapper.EventMapper;
+import ru.practicum.explorewithme.server.mapper.UserMapper;
+import ru.practicum.explorewithme.server.repository.CompilationMember;
+import ru.practicum.explorewithme.server.repository.CompilationRepository;
+import ru.practicum.explorewithme.server.repository.EventRepository;
+import ru.practicum.explorewithme.server.repository.EventSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CompilationViewStoreTest {
+    @Mock
+    private CompilationRepository compilationRepository;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private EventViewsService eventViewsService;
+
+    private CompilationViewStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new CompilationViewStore(compilationRepository, eventRepository, eventViewsService,
+                new CompilationMapper(), new EventMapper(new CategoryMapper(), new UserMapper(), null, null));
+        when(compilationRepository.findAll()).thenReturn(List.of(compilation(1L, true), compilation(2L, false),
+                compilation(3L, true)));
+        when(compilationRepository.findAllMembers()).thenReturn(List.of(new CompilationMember(1L, 10L),
+                new CompilationMember(1L, 11L), new CompilationMember(3L, 11L)));
+        when(eventRepository.findSummariesByIdIn(anyCollection())).thenReturn(List.of(summary(10L), summary(11L)));
+        when(eventViewsService.getViews(anyCollection())).thenReturn(Map.of(10L, 5L, 11L, 7L));
+    }
+
+    @Test
+    void getAll_loadsOnceAndPagesInMemory() {
+        assertEquals(List.of(1L, 3L), ids(store.getAll(true, 0, 10)));
+        assertEquals(List.of(3L), ids(store.getAll(null, 2, 2)));
+        assertEquals(List.of(2L), ids(store.getAll(false, 0, 10)));
+        assertEquals(List.of(10L, 11L), store.get(1L).orElseThrow().getEvents().stream()
+                .map(EventShortDto::getId).toList());
+        assertEquals(7L, store.get(3L).orElseThrow().getEvents().get(0).getViews());
+
+        verify(compilationRepository, times(1)).findAll();
+        verify(eventViewsService, times(1)).getViews(anyCollection());
+    }
+
+    @Test
+    void eventChanges_updateEveryCompilationContainingEvent() {
+        store.get(1L);
+
+        store.addConfirmedRequests(11L, 2);
+        store.updateCategory(CategoryDto.builder().id(1L).name("renamed").build());
+
+        for (Long compId : List.of(1L, 3L)) {
+            EventShortDto event = store.get(compId).orElseThrow().getEvents().stream()
+                    .filter(dto -> dto.getId().equals(11L)).findFirst().orElseThrow();
+            assertEquals(3L, event.getConfirmedRequests());
+            assertEquals("renamed", event.getCategory().getName());
+            assertEquals(7L, event.getViews());
+        }
+        assertEquals(1L, store.get(1L).orElseThrow().getEvents().get(0).getConfirmedRequests());
+    }
+
+    @Test
+    void putAndRemove_replaceStoredCompilations() {
+        store.get(1L);
+
+        store.put(CompilationDto.builder().id(4L).pinned(true).title("New").events(List.of()).build());
+        store.remove(1L);
+
+        assertEquals(List.of(3L, 4L), ids(store.getAll(true, 0, 10)));
+        assertTrue(store.get(1L).isEmpty());
+    }
+
+    private List<Long> ids(List<CompilationDto> compilations) {
+        return compilations.stream().map(CompilationDto::getId).toList();
+    }
+
+    private Compilation compilation(Long id, boolean pinned) {
+        return Compilation.builder().id(id).title("comp" + id).pinned(pinned).build();
+    }
+
+    private EventSummary summary(Long id) {
+        return new EventSummary(id, "annotation", 1L, "cat1", 1L, LocalDateTime.of(2026, 1, 1, 12, 0), 1L, "owner",
+                false, "event" + id, 0L);
+    }
+}
@@ -0,0 +1,180 @@
+package ru.practicum.explorewithme.server.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.explorewithme.server.entity.Category;
+import ru.practicum.explorewithme.server.entity.Event;
+import ru.practicum.explorewithme.server.entity.EventState;
+import ru.practicum.explorewithme.server.repository.EventRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventCatalogTest {
+    @Mock
+    private EventRepository eventRepository;
+
+    @InjectMocks
+    private EventCatalog catalog;
+
+    private final LocalDateTime now = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(catalog, "enabled", true);
+        ReflectionTestUtils.setField(catalog, "batchSize", 2);
+    }
+
+    @Test
+    void searchAppliesFiltersInDateOrder() {
+        rebuild(event(1L, 1L, false, 1, 0, 0),
+                event(2L, 2L, true, 2, 0, 0),
+                event(3L, 1L, true, 3, 1, 1),
+                event(4L, 1L, false, -1, 0, 0),
+                event(5L, 1L, false, 2, 0, 0));
+
+        assertEquals(List.of(3L, 5L, 2L, 1L), search(null, null, false));
+        assertEquals(List.of(3L, 5L, 1L), search(List.of(1L), null, false));
+        assertEquals(List.of(5L, 1L), search(List.of(1L), false, false));
+        assertEquals(List.of(3L, 2L), search(null, true, false));
+        assertEquals(List.of(5L, 2L, 1L), search(null, null, true));
+        assertEquals(List.of(5L, 2L), catalog.search(null, null, now.plusDays(2), now.plusDays(2), false,
+                null, null, 0, 10));
+    }
+
+    @Test
+    void searchPagesByOffsetAndCursor() {
+        rebuild(event(1L, 1L, false, 1, 0, 0),
+                event(2L, 1L, false, 2, 0, 0),
+                event(3L, 1L, false, 2, 0, 0),
+                event(4L, 1L, false, 3, 0, 0));
+
+        assertEquals(List.of(3L, 2L), catalog.search(null, null, now, null, false, null, null, 1, 2));
+        assertEquals(List.of(2L, 1L), catalog.search(null, null, now, null, false,
+                now.plusDays(2), 3L, 0, 2));
+    }
+
+    @Test
+    void updateAndConfirmedRequestsKeepCatalogCurrent() {
+        rebuild(event(1L, 1L, false, 1, 1, 0),
+                event(2L, 1L, false, 2, 0, 0));
+
+        catalog.setConfirmedRequests(1L, 1);
+        Event moved = event(2L, 2L, false, 3, 0, 0);
+        catalog.update(moved);
+        Event published = event(3L, 1L, true, 4, 0, 0);
+        catalog.update(published);
+
+        assertEquals(List.of(3L), search(List.of(1L), null, true));
+        assertEquals(List.of(2L), search(List.of(2L), null, false));
+
+        Event canceled = event(3L, 1L, true, 4, 0, 0);
+        canceled.setState(EventState.CANCELED);
+        catalog.update(canceled);
+
+        assertEquals(List.of(2L, 1L), search(null, null, false));
+    }
+
+    @Test
+    void updateKeepsCatalogConfirmedRequests() {
+        rebuild(event(1L, 1L, false, 1, 1, 0),
+                event(2L, 1L, false, 2, 0, 0));
+
+        catalog.setConfirmedRequests(1L, 1);
+        catalog.update(event(1L, 1L, true, 1, 1, 0));
+        assertEquals(List.of(2L), search(null, null, true));
+
+        catalog.update(event(1L, 1L, true, 3, 1, 0));
+        assertEquals(List.of(2L), search(null, null, true));
+        assertEquals(List.of(1L, 2L), search(null, null, false));
+    }
+
+    @Test
+    void queuedUpdatesAreMergedBeforeSearch() {
+        rebuild(event(1L, 1L, false, 1, 0, 0),
+                event(2L, 1L, false, 2, 0, 0));
+
+        catalog.update(event(3L, 2L, false, 3, 1, 0));
+        catalog.setConfirmedRequests(3L, 1);
+        catalog.update(event(4L, 2L, true, 0, 0, 0));
+        catalog.update(event(1L, 1L, false, 5, 0, 0));
+        Event canceled = event(2L, 1L, false, 2, 0, 0);
+        canceled.setState(EventState.CANCELED);
+        catalog.update(canceled);
+
+        assertEquals(List.of(1L, 3L, 4L), catalog.search(null, null, now.minusDays(1), null, false,
+                null, null, 0, 10));
+        assertEquals(List.of(1L, 4L), search(null, null, true));
+    }
+
+    @Test
+    void confirmedRequestsDuringRebuildAreReplayed() {
+        rebuild(event(1L, 1L, false, 1, 1, 0));
+        when(eventRepository.findAllByStateAndIdGreaterThanOrderByIdAsc(eq(EventState.PUBLISHED), eq(0L), any()))
+                .thenAnswer(invocation -> {
+                    catalog.setConfirmedRequests(1L, 1);
+                    return List.of(event(1L, 1L, false, 1, 1, 0));
+                });
+
+        catalog.rebuild();
+
+        assertEquals(List.of(), search(null, null, true));
+    }
+
+    @Test
+    void confirmedRequestsReadByRebuildAreNotCountedTwice() {
+        rebuild(event(1L, 1L, false, 1, 2, 0));
+        when(eventRepository.findAllByStateAndIdGreaterThanOrderByIdAsc(eq(EventState.PUBLISHED), eq(0L), any()))
+                .thenAnswer(invocation -> {
+                    catalog.setConfirmedRequests(1L, 1);
+                    return List.of(event(1L, 1L, false, 1, 2, 1));
+                });
+
+        catalog.rebuild();
+        catalog.setConfirmedRequests(1L, 1);
+
+        assertEquals(List.of(1L), search(null, null, true));
+    }
+
+    @Test
+    void searchReturnsNullUntilBuilt() {
+        assertNull(search(null, null, false));
+    }
+
+    private List<Long> search(List<Long> categories, Boolean paid, boolean onlyAvailable) {
+        return catalog.search(categories, paid, now, null, onlyAvailable, null, null, 0, 10);
+    }
+
+    private void rebuild(Event... events) {
+        List<Event> all = List.of(events);
+        for (int i = 0; i <= all.size(); i += 2) {
+            long afterId = i == 0 ? 0L : all.get(i - 1).getId();
+            when(eventRepository.findAllByStateAndIdGreaterThanOrderByIdAsc(eq(EventState.PUBLISHED), eq(afterId),
+                    any())).thenReturn(all.subList(i, Math.min(all.size(), i + 2)));
+        }
+        catalog.rebuild();
+    }
+
+    private Event event(Long id, Long categoryId, boolean paid, int daysAhead, int limit, long confirmed) {
+        return Event.builder()
+                .id(id)
+                .category(Category.builder().id(categoryId).name("cat" + categoryId).build())
+                .paid(paid)
+                .eventDate(now.plusDays(daysAhead))
+                .participantLimit(limit)
+                .confirmedRequests(confirmed)
+                .state(EventState.PUBLISHED)
+                .build();
+    }
+}
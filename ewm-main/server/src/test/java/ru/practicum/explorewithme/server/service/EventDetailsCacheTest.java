@@ -0,0 +1,121 @@
+package ru.practicum.explorewithme.server.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.explorewithme.event.dto.EventFullDto;
+import ru.practicum.explorewithme.server.exception.EntityNotFoundException;
+import ru.practicum.explorewithme.server.repository.EventRepository;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class EventDetailsCacheTest {
+    @Mock
+    private EventRepository eventRepository;
+
+    private EventDetailsCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new EventDetailsCache(eventRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(10));
+        cache.init();
+    }
+
+    @Test
+    void get_repeatedReadsServedFromMemory() {
+        EventFullDto first = cache.get(1L, () -> load(1L, "Jazz night", 3L));
+        EventFullDto second = cache.get(1L, () -> load(1L, "Jazz night", 3L));
+
+        assertEquals(1, loads.get());
+        assertEquals("Jazz night", second.getTitle());
+        assertEquals(3L, first.getConfirmedRequests());
+        assertEquals(3L, second.getConfirmedRequests());
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    void setConfirmedRequests_overlaysCountWithoutReloadingDetails() {
+        cache.get(1L, () -> load(1L, "Jazz night", 3L));
+
+        cache.setConfirmedRequests(1L, 5);
+        cache.setConfirmedRequests(1L, 4);
+        EventFullDto event = cache.get(1L, () -> load(1L, "Jazz night", 3L));
+
+        assertEquals(1, loads.get());
+        assertEquals(5L, event.getConfirmedRequests());
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    void evict_reloadsUpdatedEvent() {
+        cache.get(1L, () -> load(1L, "Jazz night", 3L));
+
+        cache.evict(1L);
+        EventFullDto event = cache.get(1L, () -> load(1L, "Jazz festival", 4L));
+
+        assertEquals(2, loads.get());
+        assertEquals("Jazz festival", event.getTitle());
+        assertEquals(4L, event.getConfirmedRequests());
+    }
+
+    @Test
+    void get_doesNotStoreLoadRacingWithEviction() {
+        cache.get(1L, () -> {
+            cache.evict(1L);
+            return load(1L, "Jazz night", 3L);
+        });
+        EventFullDto event = cache.get(1L, () -> load(1L, "Jazz festival", 4L));
+
+        assertEquals(2, loads.get());
+        assertEquals("Jazz festival", event.getTitle());
+    }
+
+    @Test
+    void evict_keepsOtherEventsCached() {
+        cache.get(1L, () -> load(1L, "Jazz night", 3L));
+        cache.get(2L, () -> {
+            cache.evict(3L);
+            return load(2L, "Rock night", 1L);
+        });
+
+        cache.evict(3L);
+        cache.get(1L, () -> load(1L, "Jazz night", 3L));
+        cache.get(2L, () -> load(2L, "Rock night", 1L));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_doesNotCacheUnpublishedEvent() {
+        assertThrows(EntityNotFoundException.class, () -> cache.get(1L, () -> {
+            loads.incrementAndGet();
+            throw new EntityNotFoundException("Событие не опубликовано");
+        }));
+        EventFullDto event = cache.get(1L, () -> load(1L, "Jazz night", 0L));
+
+        assertEquals(2, loads.get());
+        assertEquals("Jazz night", event.getTitle());
+    }
+
+    private EventFullDto load(Long id, String title, Long confirmedRequests) {
+        loads.incrementAndGet();
+        return EventFullDto.builder()
+                .id(id)
+                .title(title)
+                .state("PUBLISHED")
+                .confirmedRequests(confirmedRequests)
+                .build();
+    }
+}
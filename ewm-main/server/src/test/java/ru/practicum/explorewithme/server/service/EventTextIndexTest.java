@@ -0,0 +1,102 @@
+package ru.practicum.explorewithme.server.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.explorewithme.server.entity.Event;
+import ru.practicum.explorewithme.server.entity.EventState;
+import ru.practicum.explorewithme.server.repository.EventRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventTextIndexTest {
+    @Mock
+    private EventRepository eventRepository;
+
+    @InjectMocks
+    private EventTextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "engine", EventTextIndex.ENGINE);
+        ReflectionTestUtils.setField(index, "batchSize", 2);
+        ReflectionTestUtils.setField(index, "maxCandidates", 10);
+    }
+
+    @Test
+    void searchReturnsEventsContainingAllTrigrams() {
+        when(eventRepository.findAllByStateAndIdGreaterThanOrderByIdAsc(eq(EventState.PUBLISHED), eq(0L), any()))
+                .thenReturn(List.of(event(1L, "Rock concert"), event(2L, "Jazz fest")));
+        when(eventRepository.findAllByStateAndIdGreaterThanOrderByIdAsc(eq(EventState.PUBLISHED), eq(2L), any()))
+                .thenReturn(List.of(event(3L, "Jazz & rock night")));
+        index.rebuild();
+
+        assertArrayEquals(new int[]{2, 3}, index.search("JAZZ"));
+        assertArrayEquals(new int[]{1, 3}, index.search("rock"));
+        assertArrayEquals(new int[0], index.search("opera"));
+        assertNull(index.search("ro"));
+    }
+
+    @Test
+    void indexAddsPublishedEventsOnly() {
+        when(eventRepository.findAllByStateAndIdGreaterThanOrderByIdAsc(eq(EventState.PUBLISHED), eq(0L), any()))
+                .thenReturn(List.of(event(5L, "Rock concert")));
+        index.rebuild();
+
+        Event pending = event(2L, "Rock opera");
+        pending.setState(EventState.PENDING);
+        index.index(pending);
+        index.index(event(3L, "Rock opera"));
+
+        assertArrayEquals(new int[]{3, 5}, index.search("rock"));
+        assertArrayEquals(new int[]{3}, index.search("opera"));
+    }
+
+    @Test
+    void eventsIndexedDuringRebuildAreReplayed() {
+        when(eventRepository.findAllByStateAndIdGreaterThanOrderByIdAsc(eq(EventState.PUBLISHED), eq(0L), any()))
+                .thenReturn(List.of(event(1L, "Rock concert")));
+        index.rebuild();
+        when(eventRepository.findAllByStateAndIdGreaterThanOrderByIdAsc(eq(EventState.PUBLISHED), eq(0L), any()))
+                .thenAnswer(invocation -> {
+                    index.index(event(2L, "Rock opera"));
+                    return List.of(event(1L, "Rock concert"));
+                });
+
+        index.rebuild();
+
+        assertArrayEquals(new int[]{1, 2}, index.search("rock"));
+    }
+
+    @Test
+    void searchGivesUpWhenTooManyCandidates() {
+        ReflectionTestUtils.setField(index, "maxCandidates", 1);
+        when(eventRepository.findAllByStateAndIdGreaterThanOrderByIdAsc(eq(EventState.PUBLISHED), eq(0L), any()))
+                .thenReturn(List.of(event(1L, "Rock concert")));
+        index.rebuild();
+        index.index(event(2L, "Rock opera"));
+
+        assertNull(index.search("rock"));
+        assertArrayEquals(new int[]{2}, index.search("opera"));
+    }
+
+    private Event event(Long id, String title) {
+        return Event.builder()
+                .id(id)
+                .title(title)
+                .annotation("")
+                .description("")
+                .state(EventState.PUBLISHED)
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.explorewithme.server.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.explorewithme.client.StatClient;
+import ru.practicum.explorewithme.stats.dto.ViewStats;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventViewsServiceTest {
+    @Mock
+    private StatClient statClient;
+
+    private EventViewsService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new EventViewsService(statClient);
+        ReflectionTestUtils.setField(service, "deadline", Duration.ofMillis(200));
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "viewsTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(service, "viewsMaxSize", 100L);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void getViews_servesRepeatedLookupsFromRecentViews() {
+        when(statClient.getStats(any(), any(), anyList(), anyBoolean()))
+                .thenReturn(ResponseEntity.ok(List.of(stats("/events/1", 3L))));
+
+        assertEquals(3L, service.getViews(1L));
+        service.recordView(1L);
+        assertEquals(4L, service.getViews(1L));
+
+        verify(statClient, times(1)).getStats(any(), any(), anyList(), anyBoolean());
+    }
+
+    @Test
+    void getViews_returnsFinishedBatchesAndZeroForBatchesPastDeadline() {
+        when(statClient.getStats(any(), any(), anyList(), anyBoolean())).thenAnswer(invocation -> {
+            List<String> uris = invocation.getArgument(2);
+            if (uris.contains("/events/3")) {
+                Thread.sleep(2_000);
+            }
+            return ResponseEntity.ok(uris.stream().map(uri -> stats(uri, 7L)).toList());
+        });
+
+        long started = System.nanoTime();
+        Map<Long, Long> views = service.getViews(List.of(1L, 2L, 3L));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).toMillis() < 1_500);
+        assertEquals(Map.of(1L, 7L, 2L, 7L, 3L, 0L), views);
+        verify(statClient).markDegraded();
+    }
+
+    @Test
+    void getViews_doesNotMarkDegradedWhenAllBatchesFinish() {
+        when(statClient.getStats(any(), any(), anyList(), anyBoolean())).thenAnswer(invocation -> {
+            List<String> uris = invocation.getArgument(2);
+            return ResponseEntity.ok(uris.stream().map(uri -> stats(uri, 2L)).toList());
+        });
+
+        assertEquals(Map.of(1L, 2L, 2L, 2L, 3L, 2L), service.getViews(List.of(1L, 2L, 3L, 1L)));
+        verify(statClient, never()).markDegraded();
+    }
+
+    private ViewStats stats(String uri, Long hits) {
+        return ViewStats.builder().app("ewm-main").uri(uri).hits(hits).build();
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.explorewithme.server.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.explorewithme.client.StatClient;
+import ru.practicum.explorewithme.server.entity.Category;
+import ru.practicum.explorewithme.server.entity.Event;
+import ru.practicum.explorewithme.server.entity.EventState;
+import ru.practicum.explorewithme.server.entity.User;
+import ru.practicum.explorewithme.stats.dto.ViewStats;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(EventViewsSyncService.class)
+class EventViewsSyncServiceTest {
+    @Autowired
+    private EventViewsSyncService syncService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private StatClient statClient;
+
+    private String uri;
+    private Long eventId;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(syncService, "backfilled", false);
+        User user = entityManager.persist(User.builder().name("u1").email("u1@mail.ru").build());
+        Category category = entityManager.persist(Category.builder().name("cat1").build());
+        eventId = entityManager.persistAndFlush(Event.builder()
+                .title("Rock concert")
+                .annotation("Big outdoor concert")
+                .description("Big outdoor concert")
+                .category(category)
+                .initiator(user)
+                .state(EventState.PUBLISHED)
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .build()).getId();
+        uri = "/events/" + eventId;
+    }
+
+    @Test
+    void sync_setsTotalsOfRecentlyViewedEventsIdempotently() {
+        when(statClient.getStatsWithoutFallback(any(), any(), isNull(), eq(false)))
+                .thenReturn(List.of(stats(uri, 3L), stats("/events", 10L)));
+        when(statClient.getStatsWithoutFallback(any(), any(), eq(List.of(uri)), eq(false)))
+                .thenReturn(List.of(stats(uri, 4L)));
+
+        syncService.sync();
+        assertEquals(3L, views());
+
+        syncService.sync();
+        syncService.sync();
+        assertEquals(4L, views());
+    }
+
+    @Test
+    void sync_neverLowersViewsWrittenByAnotherInstance() {
+        jdbcTemplate.update("UPDATE events SET views = 7 WHERE id = ?", eventId);
+        when(statClient.getStatsWithoutFallback(any(), any(), isNull(), eq(false)))
+                .thenReturn(List.of(stats(uri, 5L)));
+
+        syncService.sync();
+
+        assertEquals(7L, views());
+    }
+
+    @Test
+    void sync_retriesBackfillAfterStatsFailure() {
+        when(statClient.getStatsWithoutFallback(any(), any(), isNull(), eq(false)))
+                .thenThrow(new ResourceAccessException("down"))
+                .thenReturn(List.of(stats(uri, 5L)));
+
+        syncService.sync();
+        assertEquals(0L, views());
+
+        syncService.sync();
+        assertEquals(5L, views());
+    }
+
+    private Long views() {
+        return jdbcTemplate.queryForObject("SELECT views FROM events WHERE id = ?", Long.class, eventId);
+    }
+
+    private ViewStats stats(String uri, Long hits) {
+        return ViewStats.builder().app("ewm-main").uri(uri).hits(hits).build();
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.explorewithme.server.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.explorewithme.server.repository.EventSummary;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublicEventSearchCacheTest {
+    private final PublicEventSearchCache cache = new PublicEventSearchCache(new SimpleMeterRegistry());
+    private final AtomicInteger loads = new AtomicInteger();
+    private final LocalDateTime now = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(cache, "quantum", Duration.ofMinutes(1));
+        cache.init();
+    }
+
+    @Test
+    void quantize_mapsNearbyInstantsToOneKey() {
+        LocalDateTime first = cache.quantize(now.plusSeconds(5).plusNanos(1));
+        LocalDateTime second = cache.quantize(now.plusSeconds(59));
+
+        assertEquals(now, first);
+        assertEquals(first, second);
+        assertEquals(now.plusMinutes(1), cache.quantize(now.plusSeconds(60)));
+    }
+
+    @Test
+    void get_equivalentFiltersShareEntry() {
+        cache.get(key("Jazz", List.of(2L, 1L, 2L)), this::load);
+        cache.get(key("JAZZ", List.of(1L, 2L)), this::load);
+        cache.get(key("jazz", List.of(1L)), this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictCategories_dropsAffectedAndUnfilteredListings() {
+        cache.get(key(null, List.of(1L)), this::load);
+        cache.get(key(null, List.of(2L, 3L)), this::load);
+        cache.get(key(null, null), this::load);
+
+        cache.evictCategories(Set.of(3L));
+        cache.get(key(null, List.of(1L)), this::load);
+        cache.get(key(null, List.of(2L, 3L)), this::load);
+        cache.get(key(null, null), this::load);
+
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void evictAvailable_dropsOnlyAvailabilityListingsOfCategory() {
+        cache.get(key(null, null), this::load);
+        cache.get(available(null), this::load);
+        cache.get(available(List.of(1L)), this::load);
+        cache.get(available(List.of(2L)), this::load);
+
+        cache.evictAvailable(1L);
+        cache.get(key(null, null), this::load);
+        cache.get(available(null), this::load);
+        cache.get(available(List.of(1L)), this::load);
+        cache.get(available(List.of(2L)), this::load);
+
+        assertEquals(6, loads.get());
+    }
+
+    @Test
+    void get_doesNotStoreLoadRacingWithEviction() {
+        cache.get(key(null, List.of(1L)), () -> {
+            cache.evictCategories(Set.of(1L));
+            return load();
+        });
+        cache.get(key(null, List.of(1L)), this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    private PublicEventSearchCache.Key available(List<Long> categories) {
+        return PublicEventSearchCache.Key.of(null, categories, null, now, null, true, null, 0, 10, null);
+    }
+
+    private PublicEventSearchCache.Key key(String text, List<Long> categories) {
+        return PublicEventSearchCache.Key.of(text, categories, null, now, null, false, null, 0, 10, null);
+    }
+
+    private List<EventSummary> load() {
+        loads.incrementAndGet();
+        return List.of(new EventSummary(1L, "Annotation", 1L, "cat1", 0L, now.plusDays(1), 1L, "u1",
+                false, "Jazz night", 0L));
+    }
+}
@@ -0,0 +1,243 @@
+package ru.practicum.explorewithme.server.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.explorewithme.request.dto.EventRequestStatusUpdateRequest;
+import ru.practicum.explorewithme.request.dto.EventRequestStatusUpdateResult;
+import ru.practicum.explorewithme.request.dto.ParticipationRequestDto;
+import ru.practicum.explorewithme.server.entity.Category;
+import ru.practicum.explorewithme.server.entity.Event;
+import ru.practicum.explorewithme.server.entity.EventState;
+import ru.practicum.explorewithme.server.entity.RequestStatus;
+import ru.practicum.explorewithme.server.entity.User;
+import ru.practicum.explorewithme.server.exception.ConflictException;
+import ru.practicum.explorewithme.server.exception.EntityNotFoundException;
+import ru.practicum.explorewithme.server.mapper.RequestMapper;
+import ru.practicum.explorewithme.server.mapper.UserMapper;
+import ru.practicum.explorewithme.server.repository.CategoryRepository;
+import ru.practicum.explorewithme.server.repository.EventRepository;
+import ru.practicum.explorewithme.server.repository.RequestRepository;
+import ru.practicum.explorewithme.server.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RequestService.class, ConfirmedRequestsRepairService.class, UserService.class, RequestMapper.class, UserMapper.class, EventDetailsCache.class,
+        PublicEventSearchCache.class, EventCatalog.class, UserShortCache.class, SimpleMeterRegistry.class})
+class RequestAdmissionTest {
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private ConfirmedRequestsRepairService confirmedRequestsRepairService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private CompilationViewStore compilationViewStore;
+
+    private User initiator;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        requestRepository.deleteAll();
+        eventRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+        initiator = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        category = categoryRepository.save(Category.builder().name("cat1").build());
+    }
+
+    @Test
+    void create_concurrentSignUpsNeverExceedLimit() throws Exception {
+        int limit = 50;
+        int participants = 1000;
+        Event event = saveEvent(limit, false);
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < participants; i++) {
+            userIds.add(userRepository.save(User.builder().name("u" + i).email("u" + i + "@mail.ru").build())
+                    .getId());
+        }
+
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        try {
+            List<Future<?>> calls = new ArrayList<>();
+            for (Long userId : userIds) {
+                calls.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        requestService.create(userId, event.getId());
+                        admitted.incrementAndGet();
+                    } catch (ConflictException e) {
+                        refused.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> call : calls) {
+                call.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(limit, admitted.get());
+        assertEquals(participants - limit, refused.get());
+        assertEquals(limit, eventRepository.findConfirmedRequestsById(event.getId()).orElseThrow());
+        assertEquals(limit, requestRepository.countByEventIdAndStatus(event.getId(), RequestStatus.CONFIRMED));
+    }
+
+    @Test
+    void changeStatus_confirmsOnlyRemainingSeats() {
+        Event event = saveEvent(2, true);
+        List<Long> requestIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            User user = userRepository.save(User.builder().name("u" + i).email("u" + i + "@mail.ru").build());
+            requestIds.add(requestService.create(user.getId(), event.getId()).getId());
+        }
+
+        EventRequestStatusUpdateResult result = requestService.changeStatus(initiator.getId(), event.getId(),
+                EventRequestStatusUpdateRequest.builder().requestIds(requestIds.subList(0, 3)).status("CONFIRMED")
+                        .build());
+
+        assertEquals(requestIds.subList(0, 2),
+                result.getConfirmedRequests().stream().map(r -> r.getId()).toList());
+        assertEquals(requestIds.subList(2, 4),
+                result.getRejectedRequests().stream().map(r -> r.getId()).toList());
+        assertTrue(result.getRejectedRequests().stream().allMatch(r -> "REJECTED".equals(r.getStatus())));
+        assertEquals(2L, eventRepository.findConfirmedRequestsById(event.getId()).orElseThrow());
+        assertEquals(2L, requestRepository.countByEventIdAndStatus(event.getId(), RequestStatus.REJECTED));
+        assertEquals(0L, requestRepository.countByEventIdAndStatus(event.getId(), RequestStatus.PENDING));
+    }
+
+    @Test
+    void changeStatus_rejectsWholeBatchWhenOneRequestIsMissing() {
+        Event event = saveEvent(10, true);
+        User user = userRepository.save(User.builder().name("u1").email("u1@mail.ru").build());
+        Long requestId = requestService.create(user.getId(), event.getId()).getId();
+
+        assertThrows(EntityNotFoundException.class, () -> requestService.changeStatus(initiator.getId(),
+                event.getId(), EventRequestStatusUpdateRequest.builder().requestIds(List.of(requestId, -1L))
+                        .status("REJECTED").build()));
+        assertEquals(1L, requestRepository.countByEventIdAndStatus(event.getId(), RequestStatus.PENDING));
+    }
+
+    @Test
+    void changeStatus_countsDuplicateIdsOnce() {
+        Event event = saveEvent(10, true);
+        User user = userRepository.save(User.builder().name("u1").email("u1@mail.ru").build());
+        Long requestId = requestService.create(user.getId(), event.getId()).getId();
+
+        EventRequestStatusUpdateResult result = requestService.changeStatus(initiator.getId(), event.getId(),
+                EventRequestStatusUpdateRequest.builder().requestIds(List.of(requestId, requestId))
+                        .status("CONFIRMED").build());
+
+        assertEquals(1, result.getConfirmedRequests().size());
+        assertEquals(1L, eventRepository.findConfirmedRequestsById(event.getId()).orElseThrow());
+    }
+
+    @Test
+    void changeStatus_rejectsRequestsOfAnotherEvent() {
+        Event event = saveEvent(10, true);
+        Event other = saveEvent(10, true);
+        User user = userRepository.save(User.builder().name("u1").email("u1@mail.ru").build());
+        Long foreignId = requestService.create(user.getId(), other.getId()).getId();
+
+        assertThrows(ConflictException.class, () -> requestService.changeStatus(initiator.getId(), event.getId(),
+                EventRequestStatusUpdateRequest.builder().requestIds(List.of(foreignId)).status("CONFIRMED")
+                        .build()));
+        assertEquals(0L, eventRepository.findConfirmedRequestsById(event.getId()).orElseThrow());
+        assertEquals(1L, requestRepository.countByEventIdAndStatus(other.getId(), RequestStatus.PENDING));
+    }
+
+    @Test
+    void getByEvent_filtersByStatusAndPagesWithDefaultSize() {
+        Event event = saveEvent(100, true);
+        List<Long> requestIds = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            User user = userRepository.save(User.builder().name("u" + i).email("u" + i + "@mail.ru").build());
+            requestIds.add(requestService.create(user.getId(), event.getId()).getId());
+        }
+        requestService.changeStatus(initiator.getId(), event.getId(), EventRequestStatusUpdateRequest.builder()
+                .requestIds(requestIds.subList(0, 2)).status("CONFIRMED").build());
+
+        assertEquals(requestIds, ids(requestService.getByEvent(initiator.getId(), event.getId(), null, null, null,
+                null)));
+        assertEquals(requestIds.subList(1, 11), ids(requestService.getByEvent(initiator.getId(), event.getId(),
+                null, 1, null, null)));
+        assertEquals(requestIds.subList(0, 2), ids(requestService.getByEvent(initiator.getId(), event.getId(),
+                RequestStatus.CONFIRMED, null, null, null)));
+        assertEquals(requestIds.subList(3, 5), ids(requestService.getByEvent(initiator.getId(), event.getId(),
+                RequestStatus.PENDING, 1, 2, null)));
+    }
+
+    @Test
+    void repair_restoresDriftedCounterFromConfirmedRequests() {
+        Event event = saveEvent(10, false);
+        User user = userRepository.save(User.builder().name("u1").email("u1@mail.ru").build());
+        requestService.create(user.getId(), event.getId());
+        jdbcTemplate.update("UPDATE events SET confirmed_requests = 5 WHERE id = ?", event.getId());
+        assertEquals(5L, eventRepository.findConfirmedRequestsById(event.getId()).orElseThrow());
+
+        confirmedRequestsRepairService.repair();
+
+        assertEquals(1L, eventRepository.findConfirmedRequestsById(event.getId()).orElseThrow());
+    }
+
+    private List<Long> ids(List<ParticipationRequestDto> requests) {
+        return requests.stream().map(ParticipationRequestDto::getId).toList();
+    }
+
+    private Event saveEvent(int participantLimit, boolean requestModeration) {
+        return eventRepository.save(Event.builder()
+                .title("Flash sale")
+                .annotation("Limited seats")
+                .description("Limited seats")
+                .category(category)
+                .initiator(initiator)
+                .state(EventState.PUBLISHED)
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .participantLimit(participantLimit)
+                .requestModeration(requestModeration)
+                .build());
+    }
+}
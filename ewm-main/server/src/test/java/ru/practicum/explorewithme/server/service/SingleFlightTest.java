@@ -0,0 +1,132 @@
+package ru.practicum.explorewithme.server.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+    private final SingleFlight<Long, String> flight = new SingleFlight<>();
+
+    @Test
+    void execute_concurrentCallsShareOneLoad() throws Exception {
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> flight.execute(1L, () -> {
+                loads.incrementAndGet();
+                loaderStarted.countDown();
+                await(release);
+                return "event-1";
+            })));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> flight.execute(1L, () -> {
+                    loads.incrementAndGet();
+                    return "other";
+                })));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (flight.getCoalescedCount() < callers - 1 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("event-1", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            assertEquals(callers - 1, flight.getCoalescedCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_failureIsNotCached() {
+        assertThrows(IllegalStateException.class, () -> flight.execute(1L, () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals("ok", flight.execute(1L, () -> "ok"));
+        assertEquals(0, flight.getCoalescedCount());
+    }
+
+    @Test
+    void execute_errorIsPropagatedToWaiters() throws Exception {
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> flight.execute(1L, () -> {
+                loaderStarted.countDown();
+                await(release);
+                throw new AssertionError("boom");
+            }));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+            Future<String> waiter = executor.submit(() -> flight.execute(1L, () -> "other"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (flight.getCoalescedCount() < 1 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            ExecutionException leaderFailure = assertThrows(ExecutionException.class,
+                    () -> leader.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AssertionError.class, leaderFailure.getCause());
+            ExecutionException waiterFailure = assertThrows(ExecutionException.class,
+                    () -> waiter.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AssertionError.class, waiterFailure.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_waiterLoadsItselfAfterTimeout() throws Exception {
+        SingleFlight<Long, String> bounded = new SingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> bounded.execute(1L, () -> {
+                loaderStarted.countDown();
+                await(release);
+                return "slow";
+            }));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+
+            assertEquals("own", bounded.execute(1L, () -> "own"));
+            assertEquals(1, bounded.getCoalescedCount());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
 @Builder
 public class Hit {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hits_seq")
+    @SequenceGenerator(name = "hits_seq", sequenceName = "hits_seq", allocationSize = 50)
     private Long id;
 
     private String app;
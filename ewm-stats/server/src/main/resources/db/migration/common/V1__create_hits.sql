@@ -4,4 +4,4 @@ CREATE TABLE IF NOT EXISTS hits (
   uri VARCHAR(512) NOT NULL,
   ip VARCHAR(64) NOT NULL,
   timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL
-);
\ No newline at end of file
+);
@@ -0,0 +1,2 @@
+-- Статистика просмотров по списку URI за период
+CREATE INDEX IF NOT EXISTS hits_uri_timestamp_idx ON hits (uri, timestamp);
@@ -0,0 +1,2 @@
+-- Последовательность для идентификаторов просмотров: Hibernate резервирует по 50 значений за одно обращение
+CREATE SEQUENCE IF NOT EXISTS hits_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,3 @@
+-- Продолжаем нумерацию после идентификаторов, уже выданных IDENTITY-столбцом.
+-- Оптимизатор pooled считает полученное значение верхней границей блока, поэтому сдвиг равен размеру блока
+SELECT setval('hits_seq', COALESCE((SELECT MAX(id) FROM hits), 0) + 50, false);
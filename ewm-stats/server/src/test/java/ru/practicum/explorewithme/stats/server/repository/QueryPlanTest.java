@@ -0,0 +1,65 @@
+package ru.practicum.explorewithme.stats.server.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryPlanTest {
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/postgresql")
+                .load()
+                .migrate();
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("INSERT INTO hits (app, uri, ip, timestamp) "
+                + "SELECT 'ewm-main-service', '/events/' || i % 5000, '10.0.' || i % 250 || '.' || i % 200, "
+                + "timestamp '2026-01-01' + i * interval '1 minute' "
+                + "FROM generate_series(1, 200000) i");
+        jdbc.execute("ANALYZE");
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        postgres.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SELECT h.app, h.uri, count(h.id) FROM hits h "
+                    + "WHERE h.timestamp BETWEEN timestamp '2026-01-01' AND timestamp '2026-12-31' "
+                    + "AND h.uri IN ('/events/1', '/events/2', '/events/3') "
+                    + "GROUP BY h.app, h.uri ORDER BY count(h.id) DESC",
+            "SELECT h.app, h.uri, count(DISTINCT h.ip) FROM hits h "
+                    + "WHERE h.timestamp BETWEEN timestamp '2026-01-01' AND timestamp '2026-12-31' "
+                    + "AND h.uri IN ('/events/1', '/events/2', '/events/3') "
+                    + "GROUP BY h.app, h.uri ORDER BY count(DISTINCT h.ip) DESC",
+            "SELECT h.id FROM hits h WHERE h.uri = '/events/1' "
+                    + "AND h.timestamp BETWEEN timestamp '2026-01-01' AND timestamp '2026-02-01'"
+    })
+    void statsQueriesUseIndexes(String sql) {
+        String plan = String.join("\n", explain(sql));
+
+        assertFalse(plan.contains("Seq Scan"), () -> "Полный просмотр таблицы в плане запроса:\n" + sql + "\n" + plan);
+    }
+
+    private static List<String> explain(String sql) {
+        return jdbc.queryForList("EXPLAIN " + sql, String.class);
+    }
+}
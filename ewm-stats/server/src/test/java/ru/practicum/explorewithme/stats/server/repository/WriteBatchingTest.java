@@ -0,0 +1,48 @@
+package ru.practicum.explorewithme.stats.server.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.explorewithme.stats.server.entity.Hit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class WriteBatchingTest {
+    private static final int ROWS = 100;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private HitRepository repository;
+
+    @Test
+    void saveAll_insertsHitsInBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<Hit> hits = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            hits.add(new Hit(null, "app", "/events/" + i, "ip", LocalDateTime.of(2025, 12, 27, 12, 0)));
+        }
+
+        repository.saveAll(hits);
+        entityManager.flush();
+
+        long prepared = statistics.getPrepareStatementCount();
+        assertTrue(prepared <= 5, "Подготовлено запросов на " + ROWS + " строк: " + prepared);
+    }
+}